@@ -0,0 +1,116 @@
+package no.unit.nva.doi;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import no.unit.nva.doi.datacite.clients.DoiReservation;
+import no.unit.nva.doi.datacite.clients.DoiReservations;
+import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
+import no.unit.nva.doi.datacite.restclient.models.State;
+import no.unit.nva.doi.models.Doi;
+
+/**
+ * Non-blocking variant of {@link DoiClient}.
+ *
+ * <p>Every operation returns immediately with a {@link CompletableFuture} that completes when the Registry Agency has
+ * responded. Failures are reported by completing the future exceptionally with a
+ * {@link no.unit.nva.doi.datacite.clients.exception.ClientException} (or one of its subclasses), which allows a single
+ * caller to keep many requests in flight at the same time.
+ *
+ * @see DoiClient for a description of the individual operations.
+ * @see no.unit.nva.doi.datacite.clients.DataCiteAsyncClient
+ */
+public interface AsyncDoiClient {
+
+    /**
+     * Create a DOI with an auto-generated suffix in the specified customer repository.
+     *
+     * @param customerId NVAs customerId
+     * @return future completing with the {@link Doi} returned from provider
+     * @see DoiClient#createDoi(URI)
+     */
+    CompletableFuture<Doi> createDoi(URI customerId);
+
+    /**
+     * Create a DOI whose suffix is derived from the identifier of the publication it is reserved for.
+     *
+     * @param customerId            NVAs customerId
+     * @param publicationIdentifier the identifier of the publication
+     * @return future completing with the reserved {@link Doi}, or the draft DOI reserved for the publication before
+     * @see DoiClient#createDoi(URI, String)
+     */
+    CompletableFuture<Doi> createDoi(URI customerId, String publicationIdentifier);
+
+    /**
+     * Reserve many draft DOIs with auto-generated suffixes in the specified customer repository.
+     *
+     * @param customerId NVAs customerId
+     * @param count      the number of DOIs to reserve
+     * @param listener   called with the outcome of every reservation and the progress so far
+     * @return future completing with the reserved DOIs and the failures, once every reservation has completed
+     * @see DoiClient#createDois(URI, int, Consumer)
+     */
+    CompletableFuture<DoiReservations> createDois(URI customerId, int count, Consumer<DoiReservation> listener);
+
+    /**
+     * Update metadata for a DOI.
+     *
+     * @param doi                 {@link Doi} containing prefix/suffix ({@link Doi#toIdentifier()})
+     * @param metadataDataCiteXml datacite schema serialized xml as string
+     * @return future completing when the metadata has been registered
+     * @see DoiClient#updateMetadata(Doi, String)
+     */
+    CompletableFuture<Void> updateMetadata(Doi doi, String metadataDataCiteXml);
+
+    /**
+     * Set landing page for a Doi. This will also turn the DOI into findable state!
+     *
+     * @param doi {@link Doi} containing prefix/suffix ({@link Doi#toIdentifier()})
+     * @param url Location of landing page.
+     * @return future completing when the landing page has been registered
+     * @see DoiClient#setLandingPage(Doi, URI)
+     */
+    CompletableFuture<Void> setLandingPage(Doi doi, URI url);
+
+    /**
+     * Delete metadata from DOI.
+     *
+     * @param doi {@link Doi} containing prefix/suffix ({@link Doi#toIdentifier()})
+     * @return future completing when the metadata has been deleted
+     * @see DoiClient#deleteMetadata(Doi)
+     */
+    CompletableFuture<Void> deleteMetadata(Doi doi);
+
+    /**
+     * Delete a DOI which is in draft.
+     *
+     * @param doi {@link Doi} containing prefix/suffix ({@link Doi#toIdentifier()})
+     * @return future completing when the draft DOI has been deleted
+     * @see DoiClient#deleteDraftDoi(Doi)
+     */
+    CompletableFuture<Void> deleteDraftDoi(Doi doi);
+
+    CompletableFuture<DoiStateDto> getDoi(Doi doi);
+
+    /**
+     * Get the state of a DOI, without the rest of the DOI resource.
+     *
+     * @param doi {@link Doi} containing prefix/suffix ({@link Doi#toIdentifier()})
+     * @return future completing with the current {@link State} of the DOI
+     * @see DoiClient#getDoiState(Doi)
+     */
+    CompletableFuture<State> getDoiState(Doi doi);
+
+    /**
+     * Get the state of many DOIs, using as few requests to the Registry Agency as possible.
+     *
+     * @param dois the DOIs to look up, possibly belonging to different customer repositories
+     * @return future completing with the current {@link State} of each DOI known to the Registry Agency
+     * @see DoiClient#getDoiStates(Collection)
+     */
+    CompletableFuture<Map<Doi, State>> getDoiStates(Collection<Doi> dois);
+
+    CompletableFuture<String> getMetadata(Doi doi);
+}
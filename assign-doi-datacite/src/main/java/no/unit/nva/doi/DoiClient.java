@@ -1,8 +1,14 @@
 package no.unit.nva.doi;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+import no.unit.nva.doi.datacite.clients.DoiReservation;
+import no.unit.nva.doi.datacite.clients.DoiReservations;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
+import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
 
 /**
@@ -30,6 +36,36 @@ public interface DoiClient {
      */
     Doi createDoi(URI customerId) throws ClientException;
 
+    /**
+     * Create a DOI whose suffix is derived from the identifier of the publication it is reserved for, in the specified
+     * customer repository.
+     *
+     * <p>Reserving a DOI for the same publication again resolves to the draft DOI reserved before, so a reservation
+     * that timed out or was sent twice does not leave an orphaned draft DOI behind.
+     *
+     * @param customerId            NVAs customerId
+     * @param publicationIdentifier the identifier of the publication, made of letters, digits, '.', '_' and '-'
+     * @return {@link Doi} containing prefix/suffix ({@link Doi#toIdentifier()}) from provider
+     * @throws ClientException Error while communicating with Registry Agency, or when the DOI is taken by a DOI that
+     *                         is no longer a draft
+     */
+    Doi createDoi(URI customerId, String publicationIdentifier) throws ClientException;
+
+    /**
+     * Reserve many draft DOIs with auto-generated suffixes in the specified customer repository, keeping a bounded
+     * number of reservations in flight and within the rate limit of the customer's account.
+     *
+     * <p>A failing reservation does not stop the others. The listener is called from the threads completing the
+     * reservations, once per reservation, as soon as it has completed.
+     *
+     * @param customerId NVAs customerId
+     * @param count      the number of DOIs to reserve
+     * @param listener   called with the outcome of every reservation and the progress so far
+     * @return the reserved DOIs and the failures of the reservations that did not succeed
+     * @throws ClientException when the customer repository cannot be used at all
+     */
+    DoiReservations createDois(URI customerId, int count, Consumer<DoiReservation> listener) throws ClientException;
+
     /**
      * Update metadata for a DOI.
      *
@@ -80,5 +116,24 @@ public interface DoiClient {
 
     DoiStateDto getDoi(Doi doi) throws ClientException;
 
+    /**
+     * Get the state of a DOI, without the rest of the DOI resource.
+     *
+     * @param doi {@link Doi} containing prefix/suffix ({@link Doi#toIdentifier()})
+     * @return the current {@link State} of the DOI
+     * @throws ClientException Error while communicating with Registry Agency
+     */
+    State getDoiState(Doi doi) throws ClientException;
+
+    /**
+     * Get the state of many DOIs, using as few requests to the Registry Agency as possible.
+     *
+     * @param dois the DOIs to look up, possibly belonging to different customer repositories
+     * @return the current {@link State} of each DOI known to the Registry Agency; unknown DOIs are left out
+     * @throws ClientException Error while communicating with Registry Agency, or when no customer is configured for
+     *     the prefix of any of the DOIs
+     */
+    Map<Doi, State> getDoiStates(Collection<Doi> dois) throws ClientException;
+
     String getMetadata(Doi doi) throws ClientException;
 }
@@ -0,0 +1,89 @@
+package no.unit.nva.doi.datacite.clients;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import no.unit.nva.doi.datacite.clients.exception.ClientException;
+
+/**
+ * Helpers for moving between the blocking {@link no.unit.nva.doi.DoiClient} and the non-blocking
+ * {@link no.unit.nva.doi.AsyncDoiClient} world without losing the {@link ClientException} type of a failure.
+ */
+public final class ClientFutures {
+
+    private ClientFutures() {
+    }
+
+    /**
+     * Runs a call that may throw a {@link ClientException} while preparing an asynchronous request, and returns the
+     * failure as an exceptionally completed future instead of throwing it.
+     *
+     * @param call the call producing the future.
+     * @param <T>  the result type.
+     * @return the future produced by the call, or a failed future if the call threw a {@link ClientException}.
+     */
+    public static <T> CompletableFuture<T> supply(ClientCall<CompletableFuture<T>> call) {
+        try {
+            return call.call();
+        } catch (ClientException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Waits for the future to complete and rethrows any {@link ClientException} it failed with.
+     *
+     * @param future the future to wait for.
+     * @param <T>    the result type.
+     * @return the result of the future.
+     * @throws ClientException if the future completed with a {@link ClientException} or was cancelled.
+     */
+    public static <T> T join(CompletableFuture<T> future) throws ClientException {
+        try {
+            return future.join();
+        } catch (CancellationException exception) {
+            throw new ClientException(exception);
+        } catch (CompletionException exception) {
+            throw asClientException(unwrap(exception));
+        }
+    }
+
+    /**
+     * Removes the {@link CompletionException} and {@link ExecutionException} wrappers added by the
+     * {@link CompletableFuture} machinery.
+     *
+     * @param throwable a failure reported by a future.
+     * @return the original failure.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        var cause = throwable;
+        while (isWrapper(cause) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static boolean isWrapper(Throwable throwable) {
+        return throwable instanceof CompletionException || throwable instanceof ExecutionException;
+    }
+
+    private static ClientException asClientException(Throwable cause) {
+        if (cause instanceof ClientException clientException) {
+            return clientException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new ClientException((Exception) cause);
+    }
+
+    @FunctionalInterface
+    public interface ClientCall<T> {
+
+        T call() throws ClientException;
+    }
+}
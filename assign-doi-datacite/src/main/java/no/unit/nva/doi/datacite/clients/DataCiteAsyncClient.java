@@ -0,0 +1,126 @@
+package no.unit.nva.doi.datacite.clients;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import no.unit.nva.datacite.commons.HttpTransport;
+import no.unit.nva.doi.AsyncDoiClient;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigExtractor;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigExtractorImpl;
+import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
+import no.unit.nva.doi.datacite.restclient.models.State;
+import no.unit.nva.doi.models.Doi;
+import nva.commons.core.Environment;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * {@link AsyncDoiClient} towards DataCite, built on {@link HttpClient#sendAsync}.
+ */
+public class DataCiteAsyncClient implements AsyncDoiClient {
+
+    public static final String HTTPS_PROTOCOL = "https://";
+    private final MdsClient mdsClient;
+    private final DataCiteRestApiClient dataCiteRestApiClient;
+
+    @JacocoGenerated
+    public DataCiteAsyncClient() {
+        this(new CustomerConfigExtractorImpl(new Environment().readEnv("CUSTOMER_SECRETS_SECRET_NAME"),
+                                             new Environment().readEnv("CUSTOMER_SECRETS_SECRET_KEY")),
+             HttpTransport.sharedClient(),
+             HTTPS_PROTOCOL + new Environment().readEnv("DATACITE_REST_HOST"),
+             HTTPS_PROTOCOL + new Environment().readEnv("DATACITE_MDS_HOST"),
+             HTTPS_PROTOCOL + new Environment().readEnv("DOI_HOST"));
+    }
+
+    public DataCiteAsyncClient(
+        CustomerConfigExtractor customerConfigExtractor,
+        HttpClient httpClient,
+        String dataciteRestApiUri,
+        String dataciteMdsUri,
+        String doiHost) {
+        this(customerConfigExtractor,
+             httpClient,
+             dataciteRestApiUri,
+             dataciteMdsUri,
+             doiHost,
+             SenderPolicies.defaults());
+    }
+
+    public DataCiteAsyncClient(
+        CustomerConfigExtractor customerConfigExtractor,
+        HttpClient httpClient,
+        String dataciteRestApiUri,
+        String dataciteMdsUri,
+        String doiHost,
+        SenderPolicies policies) {
+        this.mdsClient = new MdsClient(dataciteMdsUri,
+                                       customerConfigExtractor,
+                                       httpClient,
+                                       policies);
+        this.dataCiteRestApiClient = new DataCiteRestApiClient(dataciteRestApiUri,
+                                                               doiHost,
+                                                               customerConfigExtractor,
+                                                               httpClient,
+                                                               policies);
+    }
+
+    @Override
+    public CompletableFuture<Doi> createDoi(URI customerId) {
+        return dataCiteRestApiClient.createDoi(customerId);
+    }
+
+    @Override
+    public CompletableFuture<Doi> createDoi(URI customerId, String publicationIdentifier) {
+        return dataCiteRestApiClient.createDoi(customerId, publicationIdentifier);
+    }
+
+    @Override
+    public CompletableFuture<DoiReservations> createDois(URI customerId,
+                                                         int count,
+                                                         Consumer<DoiReservation> listener) {
+        return dataCiteRestApiClient.createDois(customerId, count, listener);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateMetadata(Doi doi, String metadataDataCiteXml) {
+        return mdsClient.updateMetadata(doi, metadataDataCiteXml);
+    }
+
+    @Override
+    public CompletableFuture<Void> setLandingPage(Doi doi, URI url) {
+        return mdsClient.setLandingPage(doi, url);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteMetadata(Doi doi) {
+        return mdsClient.deleteMedata(doi);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteDraftDoi(Doi doi) {
+        return mdsClient.deleteDraftDoi(doi);
+    }
+
+    @Override
+    public CompletableFuture<DoiStateDto> getDoi(Doi doi) {
+        return dataCiteRestApiClient.getDoi(doi);
+    }
+
+    @Override
+    public CompletableFuture<State> getDoiState(Doi doi) {
+        return dataCiteRestApiClient.getDoiState(doi);
+    }
+
+    @Override
+    public CompletableFuture<Map<Doi, State>> getDoiStates(Collection<Doi> dois) {
+        return dataCiteRestApiClient.getDoiStates(dois);
+    }
+
+    @Override
+    public CompletableFuture<String> getMetadata(Doi doi) {
+        return mdsClient.getMetadata(doi);
+    }
+}
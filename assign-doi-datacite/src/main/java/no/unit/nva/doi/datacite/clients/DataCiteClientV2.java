@@ -1,31 +1,31 @@
 package no.unit.nva.doi.datacite.clients;
 
+import static no.unit.nva.doi.datacite.clients.ClientFutures.join;
 import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpClient.Version;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+import no.unit.nva.doi.AsyncDoiClient;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigExtractor;
-import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigExtractorImpl;
 import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
+import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
-import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 
+/**
+ * Blocking {@link DoiClient} that waits for the results of an {@link AsyncDoiClient}.
+ */
 public class DataCiteClientV2 implements DoiClient {
 
-    public static final String HTTPS_PROTOCOL = "https://";
-    private final MdsClient mdsClient;
-    private final DataCiteRestApiClient dataCiteRestApiClient;
+    public static final String HTTPS_PROTOCOL = DataCiteAsyncClient.HTTPS_PROTOCOL;
+    private final AsyncDoiClient asyncDoiClient;
 
     @JacocoGenerated
     public DataCiteClientV2() {
-        this(new CustomerConfigExtractorImpl(new Environment().readEnv("CUSTOMER_SECRETS_SECRET_NAME"),
-                                             new Environment().readEnv("CUSTOMER_SECRETS_SECRET_KEY")),
-             HttpClient.newBuilder().version(Version.HTTP_2).build(),
-             HTTPS_PROTOCOL + new Environment().readEnv("DATACITE_REST_HOST"),
-             HTTPS_PROTOCOL + new Environment().readEnv("DATACITE_MDS_HOST"),
-             HTTPS_PROTOCOL + new Environment().readEnv("DOI_HOST"));
+        this(new DataCiteAsyncClient());
     }
 
     public DataCiteClientV2(
@@ -34,47 +34,70 @@ public class DataCiteClientV2 implements DoiClient {
         String dataciteRestApiUri,
         String dataciteMdsUri,
         String doiHost) {
-        this.mdsClient = new MdsClient(dataciteMdsUri,
-                                       customerConfigExtractor,
-                                       httpClient);
-        this.dataCiteRestApiClient = new DataCiteRestApiClient(dataciteRestApiUri,
-                                                               doiHost,
-                                                               customerConfigExtractor,
-                                                               httpClient);
+        this(new DataCiteAsyncClient(customerConfigExtractor,
+                                     httpClient,
+                                     dataciteRestApiUri,
+                                     dataciteMdsUri,
+                                     doiHost));
+    }
+
+    public DataCiteClientV2(AsyncDoiClient asyncDoiClient) {
+        this.asyncDoiClient = asyncDoiClient;
     }
 
     @Override
     public Doi createDoi(URI customerId) throws ClientException {
-        return dataCiteRestApiClient.createDoi(customerId);
+        return join(asyncDoiClient.createDoi(customerId));
+    }
+
+    @Override
+    public Doi createDoi(URI customerId, String publicationIdentifier) throws ClientException {
+        return join(asyncDoiClient.createDoi(customerId, publicationIdentifier));
+    }
+
+    @Override
+    public DoiReservations createDois(URI customerId, int count, Consumer<DoiReservation> listener)
+        throws ClientException {
+        return join(asyncDoiClient.createDois(customerId, count, listener));
     }
 
     @Override
     public void updateMetadata(Doi doi, String metadataDataCiteXml) throws ClientException {
-        mdsClient.updateMetadata(doi, metadataDataCiteXml);
+        join(asyncDoiClient.updateMetadata(doi, metadataDataCiteXml));
     }
 
     @Override
     public void setLandingPage(Doi doi, URI url) throws ClientException {
-        mdsClient.setLandingPage(doi, url);
+        join(asyncDoiClient.setLandingPage(doi, url));
     }
 
     @Override
     public void deleteMetadata(Doi doi) throws ClientException {
-        mdsClient.deleteMedata(doi);
+        join(asyncDoiClient.deleteMetadata(doi));
     }
 
     @Override
     public void deleteDraftDoi(Doi doi) throws ClientException {
-        mdsClient.deleteDraftDoi(doi);
+        join(asyncDoiClient.deleteDraftDoi(doi));
     }
 
     @Override
     public DoiStateDto getDoi(Doi doi) throws ClientException {
-        return dataCiteRestApiClient.getDoi(doi);
+        return join(asyncDoiClient.getDoi(doi));
+    }
+
+    @Override
+    public State getDoiState(Doi doi) throws ClientException {
+        return join(asyncDoiClient.getDoiState(doi));
+    }
+
+    @Override
+    public Map<Doi, State> getDoiStates(Collection<Doi> dois) throws ClientException {
+        return join(asyncDoiClient.getDoiStates(dois));
     }
 
     @Override
     public String getMetadata(Doi doi) throws ClientException {
-        return mdsClient.getMetadata(doi);
+        return join(asyncDoiClient.getMetadata(doi));
     }
 }
@@ -1,32 +1,69 @@
 package no.unit.nva.doi.datacite.clients;
 
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.doi.datacite.clients.OperationTimeouts.Operation;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfig;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigException;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigExtractor;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigNotFoundException;
 import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
+import no.unit.nva.doi.datacite.restclient.models.DoiStatesDto;
 import no.unit.nva.doi.datacite.restclient.models.DraftDoiDto;
+import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
-import nva.commons.core.paths.UriWrapper;
 import nva.commons.core.useragent.UserAgent;
+import org.apache.http.HttpStatus;
 
 public class DataCiteRestApiClient extends HttpSender {
 
-    private  static final int TIMEOUT = 2000;
-
     public static final String ACCEPT = "Accept";
     public static final String JSON_API_CONTENT_TYPE = "application/vnd.api+json";
     public static final String CONTENT_TYPE = "Content-Type";
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String DOIS_PATH_PARAMETER = "dois";
-    private final String dataciteRestApiURI;
+    /**
+     * JSON:API sparse fieldset ({@code fields[dois]=state}) limiting the DOI resource to its state.
+     */
+    public static final String STATE_FIELDSET_QUERY = "?fields%5Bdois%5D=state";
+    /**
+     * The number of DOIs looked up in one query, keeping the query string well within the URL length limits.
+     */
+    public static final int MAX_DOIS_PER_QUERY = 100;
+    /**
+     * The number of reservations a bulk reservation keeps in flight. The rate limit of the customer's account still
+     * paces the requests themselves.
+     */
+    public static final int MAX_CONCURRENT_RESERVATIONS = 16;
+    private static final String STATES_QUERY_FORMAT = "?ids=%s&fields%%5Bdois%%5D=state&page%%5Bsize%%5D=%d";
+    private static final String ID_SEPARATOR = ",";
+    private static final Pattern SUFFIX_PATTERN = Pattern.compile("[a-z0-9][a-z0-9._-]*");
+    private static final char QUERY_SEPARATOR = '?';
+    private static final String NO_CUSTOMER_FOR_PREFIX_MESSAGE = "No customer is configured for the prefix of DOIs %s";
+    private final EndpointTemplate doisEndpoint;
     private final CustomerConfigExtractor customerConfigExtractor;
 
     private final String doiHost;
@@ -35,24 +72,250 @@ public class DataCiteRestApiClient extends HttpSender {
                                  String doiHost,
                                  CustomerConfigExtractor customerConfigExtractor,
                                  HttpClient httpClient) {
-        super(httpClient);
-        this.dataciteRestApiURI = dataciteRestApiURI;
+        this(dataciteRestApiURI,
+             doiHost,
+             customerConfigExtractor,
+             httpClient,
+             SenderPolicies.defaults());
+    }
+
+    public DataCiteRestApiClient(String dataciteRestApiURI,
+                                 String doiHost,
+                                 CustomerConfigExtractor customerConfigExtractor,
+                                 HttpClient httpClient,
+                                 SenderPolicies policies) {
+        super(httpClient, policies);
+        this.doisEndpoint = EndpointTemplate.of(dataciteRestApiURI, DOIS_PATH_PARAMETER);
         this.customerConfigExtractor = customerConfigExtractor;
         this.doiHost = doiHost;
     }
 
-    public Doi createDoi(URI customerId) throws ClientException {
-        var customer = customerConfigExtractor.getCustomerConfig(customerId);
-        var request = createPostDoiRequest(customer);
-        var response = sendRequest(request);
-        return convertResponseToDoi(response);
+    public CompletableFuture<Doi> createDoi(URI customerId) {
+        var deadline = RequestDeadline.current();
+        return ClientFutures.supply(() -> reserveDoi(customerConfigExtractor.getCustomerConfig(customerId), deadline));
+    }
+
+    /**
+     * Reserves a DOI whose suffix is the lower-cased identifier of the publication. When DataCite responds that the DOI
+     * is taken, it is looked up, and returned when it is still a draft, as it is then the draft reserved for the
+     * publication by an earlier attempt. Since repeating the request cannot reserve a second DOI, it is sent as
+     * repeatable and retried on the same failures as an idempotent request.
+     *
+     * @param customerId            the customer to reserve the DOI for.
+     * @param publicationIdentifier the identifier of the publication.
+     * @return a future completing with the reserved DOI.
+     */
+    public CompletableFuture<Doi> createDoi(URI customerId, String publicationIdentifier) {
+        var suffix = suffixOf(publicationIdentifier);
+        var deadline = RequestDeadline.current();
+        return ClientFutures.supply(() -> {
+            var customer = customerConfigExtractor.getCustomerConfig(customerId);
+            var draftDoi = DraftDoiDto.create(customer.getDoiPrefix(), suffix);
+            var request = postDoiRequestBuilder(customer, draftDoi).build();
+            return sendRepeatableAsync(customer, request, deadline)
+                       .thenCompose(response -> isTaken(response)
+                                                    ? resolveTakenDoi(customer, draftDoi, request, response, deadline)
+                                                    : toReservedDoi(request, response));
+        });
+    }
+
+    /**
+     * Reserves many draft DOIs, keeping at most {@link #MAX_CONCURRENT_RESERVATIONS} reservations in flight. A new
+     * reservation is started as soon as one completes, and every request waits for the rate limiter of the customer's
+     * account like any other request.
+     *
+     * @param customerId the customer to reserve the DOIs for.
+     * @param count      the number of DOIs to reserve.
+     * @param listener   called with every reservation as soon as it has completed.
+     * @return a future completing with all reserved DOIs and failures once every reservation has completed, or
+     *     exceptionally when the configuration of the customer cannot be read.
+     */
+    public CompletableFuture<DoiReservations> createDois(URI customerId,
+                                                         int count,
+                                                         Consumer<DoiReservation> listener) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative, was " + count);
+        }
+        var deadline = RequestDeadline.current();
+        return ClientFutures.supply(() -> {
+            var customer = customerConfigExtractor.getCustomerConfig(customerId);
+            return new BulkReservation(customer, count, listener, deadline).start();
+        });
+    }
+
+    public CompletableFuture<DoiStateDto> getDoi(Doi doi) {
+        return ClientFutures.supply(() -> {
+            var customer = customerConfigExtractor.getCustomerConfig(doi);
+            var request = createGetDoiRequest(customer, requestTargetUriToDoi(doi));
+            return sendRequestAsync(customer, request);
+        }).thenApply(response -> DoiStateDto.fromJson(response.body()));
+    }
+
+    /**
+     * Fetches only the state of the DOI, using a sparse fieldset so that DataCite leaves out the metadata, and reads
+     * it without parsing the rest of the response.
+     *
+     * @param doi the DOI to look up.
+     * @return a future completing with the state of the DOI.
+     */
+    public CompletableFuture<State> getDoiState(Doi doi) {
+        var deadline = RequestDeadline.current();
+        return ClientFutures.supply(() -> getDoiStateOfCustomer(customerConfigExtractor.getCustomerConfig(doi),
+                                                                doi,
+                                                                deadline));
+    }
+
+    /**
+     * Fetches the state of many DOIs at once, with one query per repository account and per
+     * {@link #MAX_DOIS_PER_QUERY} DOIs, following the links to further pages of the result. The queries of different
+     * accounts run concurrently.
+     *
+     * @param dois the DOIs to look up.
+     * @return a future completing with the state of every DOI DataCite knows of. DOIs DataCite does not know of, and
+     *     DOIs whose prefix belongs to no configured customer, are left out.
+     */
+    public CompletableFuture<Map<Doi, State>> getDoiStates(Collection<Doi> dois) {
+        var deadline = RequestDeadline.current();
+        return ClientFutures.supply(() -> {
+            var queries = new ArrayList<CompletableFuture<Map<Doi, State>>>();
+            for (var entry : groupByCustomer(dois).entrySet()) {
+                for (var batch : partition(entry.getValue())) {
+                    queries.add(getDoiStatesOfCustomer(entry.getKey(), batch, deadline));
+                }
+            }
+            return CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new))
+                       .thenApply(ignored -> merge(queries));
+        });
+    }
+
+    private static String suffixOf(String publicationIdentifier) {
+        var suffix = publicationIdentifier.toLowerCase(Locale.ROOT);
+        if (!SUFFIX_PATTERN.matcher(suffix).matches()) {
+            throw new IllegalArgumentException("Not usable as a DOI suffix: " + publicationIdentifier);
+        }
+        return suffix;
+    }
+
+    private static boolean isTaken(HttpResponse<String> response) {
+        return response.statusCode() == HttpStatus.SC_UNPROCESSABLE_ENTITY;
+    }
+
+    private static ClientException asClientException(Throwable failure) {
+        var cause = ClientFutures.unwrap(failure);
+        if (cause instanceof ClientException clientException) {
+            return clientException;
+        }
+        return new ClientException(cause instanceof Exception exception ? exception : new CompletionException(cause));
+    }
+
+    private static List<List<Doi>> partition(List<Doi> dois) {
+        var batches = new ArrayList<List<Doi>>();
+        for (var start = 0; start < dois.size(); start += MAX_DOIS_PER_QUERY) {
+            batches.add(dois.subList(start, Math.min(start + MAX_DOIS_PER_QUERY, dois.size())));
+        }
+        return batches;
+    }
+
+    private static Map<Doi, State> merge(List<CompletableFuture<Map<Doi, State>>> queries) {
+        var states = new HashMap<Doi, State>();
+        queries.forEach(query -> states.putAll(query.join()));
+        return states;
+    }
+
+    private static String normalizedIdentifier(String identifier) {
+        return identifier.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Groups the DOIs by the customer owning their prefix. A DOI with an unknown prefix cannot be looked up with any
+     * customer's credentials. Leaving it out would make it look unknown to DataCite, so the lookup fails instead,
+     * naming every such DOI, and the caller can retry it once the customer is configured.
+     */
+    private Map<CustomerConfig, List<Doi>> groupByCustomer(Collection<Doi> dois) throws CustomerConfigException {
+        var groups = new LinkedHashMap<CustomerConfig, List<Doi>>();
+        var unresolved = new ArrayList<Doi>();
+        for (var doi : new LinkedHashSet<>(dois)) {
+            try {
+                var customer = customerConfigExtractor.getCustomerConfig(doi);
+                groups.computeIfAbsent(customer, ignored -> new ArrayList<>()).add(doi);
+            } catch (CustomerConfigNotFoundException exception) {
+                unresolved.add(doi);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            throw new CustomerConfigNotFoundException(
+                String.format(NO_CUSTOMER_FOR_PREFIX_MESSAGE, unresolved.stream().map(Doi::toIdentifier).toList()));
+        }
+        return groups;
     }
 
-    public DoiStateDto getDoi(Doi doi) throws ClientException {
-        var customer = customerConfigExtractor.getCustomerConfig(doi);
-        var request = createGetDoiRequest(customer, doi);
-        var response = sendRequest(request);
-        return DoiStateDto.fromJson(response.body());
+    private CompletableFuture<Map<Doi, State>> getDoiStatesOfCustomer(CustomerConfig customer,
+                                                                      List<Doi> dois,
+                                                                      RequestDeadline deadline) {
+        var requested = dois.stream()
+                            .collect(Collectors.toMap(doi -> normalizedIdentifier(doi.toIdentifier()),
+                                                      doi -> doi,
+                                                      (first, second) -> first));
+        return getDoiStatesPage(customer, requestTargetUriToDoiStates(dois), requested, new HashMap<>(), deadline);
+    }
+
+    /**
+     * Fetches one page of states, and the pages after it. The pages after the first are requested from the thread
+     * completing the previous page, so the deadline is passed along rather than read from the thread.
+     */
+    private CompletableFuture<Map<Doi, State>> getDoiStatesPage(CustomerConfig customer,
+                                                                URI page,
+                                                                Map<String, Doi> requested,
+                                                                Map<Doi, State> states,
+                                                                RequestDeadline deadline) {
+        return ClientFutures.supply(() -> sendRequestAsync(customer, createGetDoiRequest(customer, page), deadline))
+                   .thenCompose(response -> {
+                       var statesPage = DoiStatesDto.fromJson(response.body());
+                       for (var doiState : statesPage.getDois()) {
+                           Optional.ofNullable(requested.get(normalizedIdentifier(doiState.getDoi())))
+                               .ifPresent(doi -> states.put(doi, doiState.getState()));
+                       }
+                       return statesPage.getNext()
+                                  .map(next -> getDoiStatesPage(customer,
+                                                                nextPageUri(next),
+                                                                requested,
+                                                                states,
+                                                                deadline))
+                                  .orElseGet(() -> CompletableFuture.completedFuture(states));
+                   });
+    }
+
+    private CompletableFuture<Doi> reserveDoi(CustomerConfig customer, RequestDeadline deadline) {
+        return ClientFutures.supply(() -> sendRequestAsync(customer, createPostDoiRequest(customer), deadline))
+                   .thenApply(this::convertResponseToDoi);
+    }
+
+    /**
+     * Looks up a DOI DataCite refused to reserve as taken. A failing lookup is treated like a DOI that is not a draft,
+     * so that the refusal itself is reported.
+     */
+    private CompletableFuture<Doi> resolveTakenDoi(CustomerConfig customer,
+                                                   DraftDoiDto draftDoi,
+                                                   HttpRequest request,
+                                                   HttpResponse<String> response,
+                                                   RequestDeadline deadline) {
+        var doi = draftDoi.toDoi().changeHost(doiHost);
+        return ClientFutures.supply(() -> getDoiStateOfCustomer(customer, doi, deadline))
+                   .exceptionally(failure -> null)
+                   .thenCompose(state -> State.DRAFT.equals(state)
+                                             ? CompletableFuture.completedFuture(doi)
+                                             : toReservedDoi(request, response));
+    }
+
+    private CompletableFuture<Doi> toReservedDoi(HttpRequest request, HttpResponse<String> response) {
+        return verifySuccessfulResponse(request, response).thenApply(this::convertResponseToDoi);
+    }
+
+    private CompletableFuture<State> getDoiStateOfCustomer(CustomerConfig customer, Doi doi, RequestDeadline deadline)
+        throws CustomerConfigException {
+        var request = createGetDoiRequest(customer, requestTargetUriToDoiState(doi));
+        return sendRequestAsync(customer, request, deadline)
+                   .thenApply(response -> DoiStateDto.stateFromJson(response.body()));
     }
 
     private Doi convertResponseToDoi(HttpResponse<String> response) {
@@ -60,47 +323,138 @@ public class DataCiteRestApiClient extends HttpSender {
         return responseBody.toDoi().changeHost(doiHost);
     }
 
-    private HttpRequest createGetDoiRequest(CustomerConfig customer, Doi doi)
+    private HttpRequest createGetDoiRequest(CustomerConfig customer, URI uri)
         throws CustomerConfigException {
         return HttpRequest.newBuilder()
-                   .uri(requestTargetUriToDoi(doi))
+                   .uri(uri)
                    .GET()
                    .header(ACCEPT, JSON_API_CONTENT_TYPE)
                    .header(UserAgent.USER_AGENT, UserAgentUtil.create(DataCiteRestApiClient.class))
-                   .timeout(Duration.ofMillis(TIMEOUT))
+                   .timeout(timeoutFor(Operation.GET_DOI))
                    .headers(AUTHORIZATION_HEADER, getBasicAuth(customer))
                    .build();
     }
 
     private URI requestTargetUriToDoi(Doi doi) {
-        return UriWrapper.fromUri(dataciteRestApiURI)
-                   .addChild(DOIS_PATH_PARAMETER)
-                   .addChild(doi.toIdentifier())
-                   .getUri();
+        return doisEndpoint.resolve(doi);
+    }
+
+    private URI requestTargetUriToDoiState(Doi doi) {
+        return URI.create(requestTargetUriToDoi(doi) + STATE_FIELDSET_QUERY);
+    }
+
+    private URI requestTargetUriToDoiStates(List<Doi> dois) {
+        var ids = dois.stream()
+                      .map(Doi::toIdentifier)
+                      .map(identifier -> URLEncoder.encode(identifier, StandardCharsets.UTF_8))
+                      .collect(Collectors.joining(ID_SEPARATOR));
+        return URI.create(doisEndpoint.uri() + String.format(STATES_QUERY_FORMAT, ids, MAX_DOIS_PER_QUERY));
+    }
+
+    /**
+     * Takes only the query of the link DataCite gives to the next page, so that the credentials of the customer are
+     * never sent to any other host than the configured one.
+     */
+    private URI nextPageUri(URI next) {
+        return URI.create(doisEndpoint.uri().toString() + QUERY_SEPARATOR + next.getRawQuery());
     }
 
     private HttpRequest createPostDoiRequest(CustomerConfig customerConfig)
+        throws CustomerConfigException {
+        return postDoiRequestBuilder(customerConfig, DraftDoiDto.fromPrefix(customerConfig.getDoiPrefix())).build();
+    }
+
+    private HttpRequest.Builder postDoiRequestBuilder(CustomerConfig customerConfig, DraftDoiDto body)
         throws CustomerConfigException {
         return HttpRequest.newBuilder()
                    .uri(doiRequestUri())
                    .header(CONTENT_TYPE, JSON_API_CONTENT_TYPE)
                    .header(UserAgent.USER_AGENT, UserAgentUtil.create(DataCiteRestApiClient.class))
-                   .POST(BodyPublishers.ofString(requestBodyContainingTheDoiPrefix(customerConfig)))
+                   .POST(BodyPublishers.ofString(body.toJson()))
                    .headers(AUTHORIZATION_HEADER, getBasicAuth(customerConfig))
-                   .timeout(Duration.ofMillis(TIMEOUT))
-                   .build();
+                   .timeout(timeoutFor(Operation.CREATE_DOI));
     }
 
     private String getBasicAuth(CustomerConfig customerConfig) throws CustomerConfigException {
         return customerConfig.extractBasicAuthenticationString();
     }
 
-    private String requestBodyContainingTheDoiPrefix(CustomerConfig customerConfig) {
-        DraftDoiDto bodyObject = DraftDoiDto.fromPrefix(customerConfig.getDoiPrefix());
-        return bodyObject.toJson();
+    private URI doiRequestUri() {
+        return doisEndpoint.uri();
     }
 
-    private URI doiRequestUri() {
-        return UriWrapper.fromUri(dataciteRestApiURI).addChild(DOIS_PATH_PARAMETER).getUri();
+    /**
+     * The state of one bulk reservation: how many reservations have been started, and the outcomes of those that have
+     * completed.
+     */
+    private final class BulkReservation {
+
+        private final CustomerConfig customer;
+        private final int count;
+        private final Consumer<DoiReservation> listener;
+        private final RequestDeadline deadline;
+        private final AtomicInteger started = new AtomicInteger();
+        private final List<Doi> reserved = new ArrayList<>();
+        private final List<ClientException> failures = new ArrayList<>();
+        private final CompletableFuture<DoiReservations> result = new CompletableFuture<>();
+
+        private BulkReservation(CustomerConfig customer,
+                                int count,
+                                Consumer<DoiReservation> listener,
+                                RequestDeadline deadline) {
+            this.customer = customer;
+            this.count = count;
+            this.listener = listener;
+            this.deadline = deadline;
+        }
+
+        private CompletableFuture<DoiReservations> start() {
+            if (count == 0) {
+                result.complete(snapshot());
+            }
+            var initial = Math.min(count, MAX_CONCURRENT_RESERVATIONS);
+            for (var i = 0; i < initial; i++) {
+                reserveNext();
+            }
+            return result;
+        }
+
+        /**
+         * Starts the next reservation, if any is left. Its completion is handled asynchronously on the executor of the
+         * HTTP client, so that reservations failing without a request being sent do not start the next one on the same
+         * stack.
+         */
+        private void reserveNext() {
+            if (started.getAndIncrement() < count) {
+                reserveDoi(customer, deadline).whenCompleteAsync(this::complete, clientExecutor());
+            }
+        }
+
+        private void complete(Doi doi, Throwable failure) {
+            var reservation = record(doi, failure);
+            try {
+                listener.accept(reservation);
+            } finally {
+                if (reservation.completed() == count) {
+                    result.complete(snapshot());
+                } else {
+                    reserveNext();
+                }
+            }
+        }
+
+        private synchronized DoiReservation record(Doi doi, Throwable failure) {
+            if (failure == null) {
+                reserved.add(doi);
+                return new DoiReservation(doi, null, reserved.size() + failures.size(), count);
+            }
+            var clientException = asClientException(failure);
+            failures.add(clientException);
+            return new DoiReservation(null, clientException, reserved.size() + failures.size(), count);
+        }
+
+        private synchronized DoiReservations snapshot() {
+            return new DoiReservations(List.copyOf(reserved), List.copyOf(failures));
+        }
     }
 }
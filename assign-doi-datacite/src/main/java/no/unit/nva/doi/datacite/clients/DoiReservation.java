@@ -0,0 +1,20 @@
+package no.unit.nva.doi.datacite.clients;
+
+import no.unit.nva.doi.datacite.clients.exception.ClientException;
+import no.unit.nva.doi.models.Doi;
+
+/**
+ * The outcome of one reservation in a bulk reservation of draft DOIs, together with the progress of the bulk
+ * reservation when it completed.
+ *
+ * @param doi       the reserved DOI, or null when the reservation failed.
+ * @param failure   the reason the reservation failed, or null when it succeeded.
+ * @param completed the number of reservations completed so far, this one included.
+ * @param count     the number of reservations requested.
+ */
+public record DoiReservation(Doi doi, ClientException failure, int completed, int count) {
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
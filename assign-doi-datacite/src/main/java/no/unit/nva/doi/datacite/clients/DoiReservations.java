@@ -0,0 +1,15 @@
+package no.unit.nva.doi.datacite.clients;
+
+import java.util.List;
+import no.unit.nva.doi.datacite.clients.exception.ClientException;
+import no.unit.nva.doi.models.Doi;
+
+/**
+ * The result of a bulk reservation of draft DOIs, in the order the reservations completed.
+ *
+ * @param dois     the reserved DOIs.
+ * @param failures the reasons the other reservations failed.
+ */
+public record DoiReservations(List<Doi> dois, List<ClientException> failures) {
+
+}
@@ -0,0 +1,112 @@
+package no.unit.nva.doi.datacite.clients;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import no.unit.nva.doi.models.Doi;
+import nva.commons.core.paths.UriWrapper;
+
+/**
+ * A DataCite endpoint whose base URI is resolved once, so that addressing a DOI only costs appending its
+ * percent-encoded identifier.
+ */
+public final class EndpointTemplate {
+
+    private static final char PATH_SEPARATOR = '/';
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final int ASCII_LIMIT = 128;
+    private static final int LOW_NIBBLE = 0x0F;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int NIBBLE_BITS = 4;
+    private static final int PERCENT_ENCODED_LENGTH = 3;
+    private static final boolean[] ALLOWED_IN_PATH = allowedInPath();
+    private final URI endpoint;
+    private final String prefix;
+
+    private EndpointTemplate(URI endpoint) {
+        this.endpoint = endpoint;
+        var base = endpoint.toString();
+        this.prefix = base.endsWith(String.valueOf(PATH_SEPARATOR)) ? base : base + PATH_SEPARATOR;
+    }
+
+    /**
+     * Resolves the endpoint below the base URI.
+     *
+     * @param baseUri      the base URI of the DataCite API.
+     * @param pathSegments the path segments of the endpoint.
+     * @return the endpoint template.
+     */
+    public static EndpointTemplate of(String baseUri, String... pathSegments) {
+        return new EndpointTemplate(UriWrapper.fromUri(baseUri).addChild(pathSegments).getUri());
+    }
+
+    /**
+     * Percent-encodes everything in a path that is not allowed in a path segment, keeping {@code /} as separator.
+     * Returns the input itself when nothing needs encoding.
+     *
+     * @param path the unencoded path.
+     * @return the encoded path.
+     */
+    public static String encodePath(String path) {
+        var firstToEncode = indexOfFirstCharacterToEncode(path);
+        if (firstToEncode < 0) {
+            return path;
+        }
+        var encoded = new StringBuilder(path.length() + 2 * PERCENT_ENCODED_LENGTH);
+        encoded.append(path, 0, firstToEncode);
+        var index = firstToEncode;
+        while (index < path.length()) {
+            var character = path.charAt(index);
+            if (isAllowed(character)) {
+                encoded.append(character);
+                index++;
+            } else {
+                var length = Character.isHighSurrogate(character) && index + 1 < path.length() ? 2 : 1;
+                appendPercentEncoded(encoded, path.substring(index, index + length));
+                index += length;
+            }
+        }
+        return encoded.toString();
+    }
+
+    public URI uri() {
+        return endpoint;
+    }
+
+    public URI resolve(Doi doi) {
+        return resolve(doi.toIdentifier());
+    }
+
+    public URI resolve(String identifier) {
+        return URI.create(prefix + encodePath(identifier));
+    }
+
+    private static int indexOfFirstCharacterToEncode(String path) {
+        for (int index = 0; index < path.length(); index++) {
+            if (!isAllowed(path.charAt(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAllowed(char character) {
+        return character < ASCII_LIMIT && ALLOWED_IN_PATH[character];
+    }
+
+    private static void appendPercentEncoded(StringBuilder encoded, String characters) {
+        for (byte value : characters.getBytes(StandardCharsets.UTF_8)) {
+            encoded.append('%')
+                .append(HEX_DIGITS[(value & BYTE_MASK) >> NIBBLE_BITS])
+                .append(HEX_DIGITS[value & LOW_NIBBLE]);
+        }
+    }
+
+    private static boolean[] allowedInPath() {
+        var allowed = new boolean[ASCII_LIMIT];
+        var characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-._~!$&'()*+,;=:@/";
+        for (char character : characters.toCharArray()) {
+            allowed[character] = true;
+        }
+        return allowed;
+    }
+}
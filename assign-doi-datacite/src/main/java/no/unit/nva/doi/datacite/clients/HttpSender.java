@@ -1,17 +1,34 @@
 package no.unit.nva.doi.datacite.clients;
 
-import static nva.commons.core.attempt.Try.attempt;
+import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.doi.datacite.clients.OperationTimeouts.Operation;
+import no.unit.nva.doi.datacite.clients.circuitbreaker.HostCircuitBreakers;
+import no.unit.nva.doi.datacite.clients.exception.CircuitOpenException;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
-import nva.commons.core.attempt.Failure;
+import no.unit.nva.doi.datacite.clients.exception.DeadlineExceededException;
+import no.unit.nva.doi.datacite.clients.ratelimit.RateLimiter;
+import no.unit.nva.doi.datacite.clients.retry.Attempt;
+import no.unit.nva.doi.datacite.clients.retry.RetryPolicy;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfig;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@SuppressWarnings("PMD.DoNotUseThreads")
 public class HttpSender {
 
     public static final String REQUEST_RESPONDED_WITH_RESPONSE_MESSAGE = "Request responded with: ";
@@ -19,36 +36,257 @@ public class HttpSender {
                                                                    HttpStatus.SC_OK,
                                                                    HttpStatus.SC_ACCEPTED,
                                                                    HttpStatus.SC_NO_CONTENT);
+    private static final Duration UNLIMITED = Duration.ofNanos(Long.MAX_VALUE);
     private final Logger logger = LoggerFactory.getLogger(HttpSender.class);
     private final HttpClient httpClient;
+    private final Executor executor;
+    private final RetryPolicy retryPolicy;
+    private final RateLimiter rateLimiter;
+    private final OperationTimeouts timeouts;
+    private final HostCircuitBreakers circuitBreakers;
 
     public HttpSender(HttpClient httpClient) {
+        this(httpClient, SenderPolicies.defaults());
+    }
+
+    public HttpSender(HttpClient httpClient, SenderPolicies policies) {
         this.httpClient = httpClient;
+        this.executor = httpClient.executor().orElseGet(ForkJoinPool::commonPool);
+        this.retryPolicy = policies.retryPolicy();
+        this.rateLimiter = policies.rateLimiter();
+        this.timeouts = policies.timeouts();
+        this.circuitBreakers = policies.circuitBreakers();
+    }
+
+    /**
+     * Sends the request without blocking the calling thread.
+     *
+     * @param customer the customer whose DataCite account the request is sent on behalf of.
+     * @param request  the request to send.
+     * @return a future completing with the response, or exceptionally with a {@link ClientException} when the request
+     *     could not be sent or the response was not successful.
+     */
+    public CompletableFuture<HttpResponse<String>> sendRequestAsync(CustomerConfig customer, HttpRequest request) {
+        return sendRequestAsync(customer, request, RequestDeadline.current());
+    }
+
+    /**
+     * Sends the request without blocking the calling thread, under the given deadline rather than the one bound to
+     * the calling thread. Requests started from the continuation of an earlier request use this, as the thread
+     * completing that request has no deadline bound.
+     *
+     * @param customer the customer whose DataCite account the request is sent on behalf of.
+     * @param request  the request to send.
+     * @param deadline the deadline captured when the caller's operation started.
+     * @return a future completing with the response, or exceptionally with a {@link ClientException} when the request
+     *     could not be sent or the response was not successful.
+     */
+    public CompletableFuture<HttpResponse<String>> sendRequestAsync(CustomerConfig customer,
+                                                                    HttpRequest request,
+                                                                    RequestDeadline deadline) {
+        return sendAsync(customer, request, deadline)
+                   .thenCompose(response -> verifySuccessfulResponse(request, response));
+    }
+
+    protected static boolean isNotSuccessful(HttpResponse<String> response) {
+        return !EXPECTED_HTTP_CODES.contains(response.statusCode());
+    }
+
+    /**
+     * Sends the request, repeating it for as long as the {@link RetryPolicy} asks for it, without inspecting the
+     * status of the final response. Every attempt waits for a permit from the {@link RateLimiter} first. The
+     * {@link RequestDeadline} bound to the calling thread caps the timeout of every attempt; no attempt is started,
+     * and no retry is scheduled, once it cannot finish before the deadline. Attempts to a host whose circuit is open
+     * fail fast with a {@link CircuitOpenException}. Transport failures are reported as a {@link ClientException}.
+     *
+     * @param customer the customer whose DataCite account the request is sent on behalf of.
+     * @param request  the request to send.
+     * @return a future completing with the final response.
+     */
+    protected CompletableFuture<HttpResponse<String>> sendAsync(CustomerConfig customer, HttpRequest request) {
+        return sendAsync(customer, request, RequestDeadline.current());
+    }
+
+    protected CompletableFuture<HttpResponse<String>> sendAsync(CustomerConfig customer,
+                                                                HttpRequest request,
+                                                                RequestDeadline deadline) {
+        return send(customer, request, deadline, false);
+    }
+
+    /**
+     * Sends a request whose method is not idempotent, but which cannot have any further effect when it is sent again,
+     * like {@link #sendAsync(CustomerConfig, HttpRequest, RequestDeadline)}. The {@link RetryPolicy} is told so through
+     * {@link Attempt#repeatable()}, and retries it like an idempotent request.
+     *
+     * @param customer the customer whose DataCite account the request is sent on behalf of.
+     * @param request  the request to send.
+     * @param deadline the deadline captured when the caller's operation started.
+     * @return a future completing with the final response.
+     */
+    protected CompletableFuture<HttpResponse<String>> sendRepeatableAsync(CustomerConfig customer,
+                                                                          HttpRequest request,
+                                                                          RequestDeadline deadline) {
+        return send(customer, request, deadline, true);
+    }
+
+    /**
+     * The executor of the HTTP client. Asynchronous continuations of subclasses run on it, so that they do not compete
+     * with unrelated work for the common pool.
+     *
+     * @return the executor of the HTTP client, or the common pool when the client has none.
+     */
+    protected Executor clientExecutor() {
+        return executor;
+    }
+
+    protected Duration timeoutFor(Operation operation) {
+        return timeouts.timeoutFor(operation);
+    }
+
+    protected ClientException handleFailure(HttpRequest request, Throwable failure) {
+        var message = String.format("Request %s failed.", request);
+        logger.error(message);
+        var cause = ClientFutures.unwrap(failure);
+        if (cause instanceof ClientException clientException) {
+            return clientException;
+        }
+        return new ClientException(message, cause instanceof Exception exception
+                                                 ? exception
+                                                 : new CompletionException(cause));
     }
 
-    public HttpResponse<String> sendRequest(HttpRequest request) throws ClientException {
-        var response = attempt(() -> httpClient.send(request, BodyHandlers.ofString()))
-                           .orElseThrow(failure -> handleFailure(request, failure));
+    protected CompletableFuture<HttpResponse<String>> verifySuccessfulResponse(HttpRequest request,
+                                                                               HttpResponse<String> response) {
         if (isNotSuccessful(response)) {
             var message = String.format("External API responded with %s on request %s", response, request);
             logger.error(message);
             logger.error(response.body());
-            throw new ClientException(message);
+            return CompletableFuture.failedFuture(new ClientException(message));
         }
-        return response;
+        return CompletableFuture.completedFuture(response);
     }
 
-    protected static boolean isNotSuccessful(HttpResponse<String> response) {
-        return !EXPECTED_HTTP_CODES.contains(response.statusCode());
+    private static CompletableFuture<HttpResponse<String>> toFuture(Attempt attempt) {
+        return attempt.responseIfPresent()
+                   .map(CompletableFuture::completedFuture)
+                   .orElseGet(() -> CompletableFuture.failedFuture(attempt.failure()));
     }
 
-    protected HttpClient getHttpClient() {
-        return httpClient;
+    private static Duration elapsedSince(long startedAtNanos) {
+        return Duration.ofNanos(System.nanoTime() - startedAtNanos);
     }
 
-    protected ClientException handleFailure(HttpRequest request, Failure<HttpResponse<String>> fail) {
-        var message = String.format("Request %s failed.", request);
-        logger.error(message);
-        return new ClientException(message, fail.getException());
+    private static boolean isCircuitFailure(HttpResponse<String> response, Throwable failure) {
+        return failure != null || response.statusCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+
+    private static boolean isResponseTimeout(Throwable failure) {
+        var cause = ClientFutures.unwrap(failure);
+        return cause instanceof HttpTimeoutException && !(cause instanceof HttpConnectTimeoutException);
+    }
+
+    private static HttpRequest withTimeout(HttpRequest request, Duration timeout) {
+        return HttpRequest.newBuilder(request, (name, value) -> true).timeout(timeout).build();
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(CustomerConfig customer,
+                                                         HttpRequest request,
+                                                         RequestDeadline deadline,
+                                                         boolean repeatable) {
+        return sendAttempt(customer, request, deadline, repeatable, 1, Duration.ZERO, System.nanoTime())
+                   .exceptionallyCompose(failure -> CompletableFuture.failedFuture(handleFailure(request, failure)));
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendAttempt(CustomerConfig customer,
+                                                                HttpRequest request,
+                                                                RequestDeadline deadline,
+                                                                boolean repeatable,
+                                                                int number,
+                                                                Duration previousDelay,
+                                                                long startedAtNanos) {
+        return rateLimiter.acquire(customer, deadline, executor)
+                   .thenCompose(permitted -> permitted
+                                                 ? sendIfPermitted(request, deadline)
+                                                 : CompletableFuture.failedFuture(
+                                                     new DeadlineExceededException(request)))
+                   .handle((response, failure) -> new Attempt(request,
+                                                              response,
+                                                              failure == null ? null : ClientFutures.unwrap(failure),
+                                                              number,
+                                                              previousDelay,
+                                                              elapsedSince(startedAtNanos),
+                                                              repeatable))
+                   .thenCompose(attempt -> retryPolicy.nextDelay(attempt)
+                                               .filter(deadline::allows)
+                                               .map(delay -> retryAfterDelay(customer,
+                                                                             attempt,
+                                                                             deadline,
+                                                                             delay,
+                                                                             startedAtNanos))
+                                               .orElseGet(() -> toFuture(attempt)));
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendIfPermitted(HttpRequest request,
+                                                                    RequestDeadline deadline) {
+        var timeout = request.timeout().orElse(UNLIMITED);
+        var timeoutWithinDeadline = deadline.clamp(timeout);
+        if (timeoutWithinDeadline.isZero()) {
+            return CompletableFuture.failedFuture(new DeadlineExceededException(request));
+        }
+        if (!circuitBreakers.tryAcquirePermission(request.uri())) {
+            return CompletableFuture.failedFuture(new CircuitOpenException(request));
+        }
+        var shortenedByDeadline = !timeoutWithinDeadline.equals(timeout);
+        var requestWithinDeadline = shortenedByDeadline ? withTimeout(request, timeoutWithinDeadline) : request;
+        return startSending(requestWithinDeadline)
+                   .whenComplete((response, failure) -> recordCircuitOutcome(request.uri(),
+                                                                             response,
+                                                                             failure,
+                                                                             shortenedByDeadline));
+    }
+
+    /**
+     * Reports the outcome of a call to the circuit breaker of its host. A call that timed out only because the
+     * deadline of the caller shortened its timeout says nothing about the host, so its permit is given back instead.
+     */
+    private void recordCircuitOutcome(URI endpoint,
+                                      HttpResponse<String> response,
+                                      Throwable failure,
+                                      boolean shortenedByDeadline) {
+        if (shortenedByDeadline && isResponseTimeout(failure)) {
+            circuitBreakers.releasePermission(endpoint);
+        } else {
+            circuitBreakers.recordOutcome(endpoint, isCircuitFailure(response, failure));
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> startSending(HttpRequest request) {
+        try {
+            return httpClient.sendAsync(request, BodyHandlers.ofString());
+        } catch (RuntimeException failure) {
+            // Recorded as the outcome like any other failure, so that a permit to probe an open circuit is released.
+            return CompletableFuture.failedFuture(failure);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> retryAfterDelay(CustomerConfig customer,
+                                                                    Attempt attempt,
+                                                                    RequestDeadline deadline,
+                                                                    Duration delay,
+                                                                    long startedAtNanos) {
+        logger.warn("Attempt {} of request {} failed with {}. Retrying in {} ms.",
+                    attempt.number(),
+                    attempt.request(),
+                    attempt.responseIfPresent().map(Object::toString).orElseGet(() -> attempt.failure().toString()),
+                    delay.toMillis());
+        var delayedExecutor = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS, executor);
+        return CompletableFuture.supplyAsync(attempt::request, delayedExecutor)
+                   .thenCompose(request -> sendAttempt(customer,
+                                                       request,
+                                                       deadline,
+                                                       attempt.repeatable(),
+                                                       attempt.number() + 1,
+                                                       delay,
+                                                       startedAtNanos));
     }
 }
@@ -1,20 +1,18 @@
 package no.unit.nva.doi.datacite.clients;
 
-import static nva.commons.core.attempt.Try.attempt;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.net.http.HttpResponse.BodyHandlers;
-import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import no.unit.nva.doi.datacite.clients.OperationTimeouts.Operation;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.clients.exception.DeleteDraftDoiException;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfig;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigException;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigExtractor;
 import no.unit.nva.doi.models.Doi;
-import nva.commons.core.paths.UriWrapper;
 import nva.commons.core.useragent.UserAgent;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
@@ -23,8 +21,6 @@ import org.slf4j.LoggerFactory;
 
 public class MdsClient extends HttpSender {
 
-    public static final int TIMEOUT = 2000;
-
     public static final String MISSING_DOI_IDENTIFIER_ARGUMENT =
         "Argument for parameter doi cannot be null!";
     public static final String MISSING_DATACITE_XML_ARGUMENT =
@@ -39,52 +35,69 @@ public class MdsClient extends HttpSender {
     public static final String TEXT_PLAIN_CHARSET_UTF_8 = "text/plain;charset=UTF-8";
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private final Logger logger = LoggerFactory.getLogger(MdsClient.class);
-    private final String dataciteMdsUri;
+    private final EndpointTemplate metadataEndpoint;
+    private final EndpointTemplate doiEndpoint;
     private final CustomerConfigExtractor customerConfigExtractor;
 
     public MdsClient(String dataciteMdsUri,
                      CustomerConfigExtractor customerConfigExtractor,
                      HttpClient httpClient) {
-        super(httpClient);
-        this.dataciteMdsUri = dataciteMdsUri;
+        this(dataciteMdsUri, customerConfigExtractor, httpClient, SenderPolicies.defaults());
+    }
+
+    public MdsClient(String dataciteMdsUri,
+                     CustomerConfigExtractor customerConfigExtractor,
+                     HttpClient httpClient,
+                     SenderPolicies policies) {
+        super(httpClient, policies);
+        this.metadataEndpoint = EndpointTemplate.of(dataciteMdsUri, DATACITE_PATH_METADATA);
+        this.doiEndpoint = EndpointTemplate.of(dataciteMdsUri, DATACITE_PATH_DOI);
         this.customerConfigExtractor = customerConfigExtractor;
     }
 
-    public void updateMetadata(Doi doi, String metadataDataCiteXml)
-        throws ClientException {
-        var customer = customerConfigExtractor.getCustomerConfig(doi);
-        validateUpdateMetadataInput(doi, metadataDataCiteXml);
-        var request = createPostMetadataRequest(customer, doi, metadataDataCiteXml);
-        sendRequest(request);
+    public CompletableFuture<Void> updateMetadata(Doi doi, String metadataDataCiteXml) {
+        return ClientFutures.supply(() -> {
+            var customer = customerConfigExtractor.getCustomerConfig(doi);
+            validateUpdateMetadataInput(doi, metadataDataCiteXml);
+            var request = createPostMetadataRequest(customer, doi, metadataDataCiteXml);
+            return sendRequestAsync(customer, request);
+        }).thenApply(response -> null);
     }
 
-    public void setLandingPage(Doi doi, URI landingPage) throws ClientException {
-        var customer = customerConfigExtractor.getCustomerConfig(doi);
-        validateLandingPageInput(doi, landingPage);
-        var request = createLandingPagePutRequest(customer, doi, landingPage);
-        sendRequest(request);
+    public CompletableFuture<Void> setLandingPage(Doi doi, URI landingPage) {
+        return ClientFutures.supply(() -> {
+            var customer = customerConfigExtractor.getCustomerConfig(doi);
+            validateLandingPageInput(doi, landingPage);
+            var request = createLandingPagePutRequest(customer, doi, landingPage);
+            return sendRequestAsync(customer, request);
+        }).thenApply(response -> null);
     }
 
-    public void deleteMedata(Doi doi) throws ClientException {
-        var customer = customerConfigExtractor.getCustomerConfig(doi);
-        validateDeleteMetadataRequest(doi);
-        var request = createDeleteMetadataRequest(customer, doi);
-        sendRequest(request);
+    public CompletableFuture<Void> deleteMedata(Doi doi) {
+        return ClientFutures.supply(() -> {
+            var customer = customerConfigExtractor.getCustomerConfig(doi);
+            validateDeleteMetadataRequest(doi);
+            var request = createDeleteMetadataRequest(customer, doi);
+            return sendRequestAsync(customer, request);
+        }).thenApply(response -> null);
     }
 
-    public void deleteDraftDoi(Doi doi) throws ClientException {
-        var customer = customerConfigExtractor.getCustomerConfig(doi);
-        validateDeleteDraftDoiRequest(doi);
-        var request = createDeleteDraftDoiRequest(customer, doi);
-        sendDeleteDraftRequest(request, doi);
+    public CompletableFuture<Void> deleteDraftDoi(Doi doi) {
+        return ClientFutures.supply(() -> {
+            var customer = customerConfigExtractor.getCustomerConfig(doi);
+            validateDeleteDraftDoiRequest(doi);
+            var request = createDeleteDraftDoiRequest(customer, doi);
+            return sendDeleteDraftRequest(customer, request, doi);
+        });
     }
 
-    public String getMetadata(Doi doi) throws ClientException {
-        var customer = customerConfigExtractor.getCustomerConfig(doi);
-        validateDeleteMetadataRequest(doi);
-        var request = createGetMetadataRequest(customer, doi);
-        var response = sendRequest(request);
-        return response.body();
+    public CompletableFuture<String> getMetadata(Doi doi) {
+        return ClientFutures.supply(() -> {
+            var customer = customerConfigExtractor.getCustomerConfig(doi);
+            validateDeleteMetadataRequest(doi);
+            var request = createGetMetadataRequest(customer, doi);
+            return sendRequestAsync(customer, request);
+        }).thenApply(HttpResponse::body);
     }
 
     private HttpRequest createGetMetadataRequest(CustomerConfig customer, Doi doi)
@@ -95,7 +108,7 @@ public class MdsClient extends HttpSender {
                    .header(AUTHORIZATION_HEADER, customer.extractBasicAuthenticationString())
                    .header(UserAgent.USER_AGENT, UserAgentUtil.create(MdsClient.class))
                    .uri(createUriForAccessingMetadata(doi))
-                   .timeout(Duration.ofMillis(TIMEOUT))
+                   .timeout(timeoutFor(Operation.GET_METADATA))
                    .build();
     }
 
@@ -103,17 +116,20 @@ public class MdsClient extends HttpSender {
         return response.statusCode() == HttpStatus.SC_METHOD_NOT_ALLOWED;
     }
 
-    private void sendDeleteDraftRequest(HttpRequest request, Doi doi) throws ClientException {
-        var response = attempt(() -> super.getHttpClient().send(request, BodyHandlers.ofString()))
-                           .orElseThrow(failure -> handleFailure(request, failure));
+    private CompletableFuture<Void> sendDeleteDraftRequest(CustomerConfig customer, HttpRequest request, Doi doi) {
+        return sendAsync(customer, request).thenCompose(response -> verifyDraftDoiWasDeleted(response, doi));
+    }
+
+    private CompletableFuture<Void> verifyDraftDoiWasDeleted(HttpResponse<String> response, Doi doi) {
         if (triedToDeleteFindableDoi(response)) {
             logger.error(REQUEST_RESPONDED_WITH_RESPONSE_MESSAGE + response.body());
-            throw new DeleteDraftDoiException(doi, response.statusCode());
+            return CompletableFuture.failedFuture(new DeleteDraftDoiException(doi, response.statusCode()));
         }
         if (isNotSuccessful(response)) {
             logger.error(REQUEST_RESPONDED_WITH_RESPONSE_MESSAGE + response.body());
-            throw new ClientException(response.toString());
+            return CompletableFuture.failedFuture(new ClientException(response.toString()));
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     private HttpRequest createDeleteMetadataRequest(CustomerConfig customer, Doi doi)
@@ -123,7 +139,7 @@ public class MdsClient extends HttpSender {
                    .uri(createUriForAccessingMetadata(doi))
                    .header(AUTHORIZATION_HEADER, customer.extractBasicAuthenticationString())
                    .header(UserAgent.USER_AGENT, UserAgentUtil.create(MdsClient.class))
-                   .timeout(Duration.ofMillis(TIMEOUT))
+                   .timeout(timeoutFor(Operation.DELETE_METADATA))
                    .build();
     }
 
@@ -138,7 +154,7 @@ public class MdsClient extends HttpSender {
                    .header(AUTHORIZATION_HEADER, customer.extractBasicAuthenticationString())
                    .header(UserAgent.USER_AGENT, UserAgentUtil.create(MdsClient.class))
                    .uri(createUriForAccessingDoi(doi))
-                   .timeout(Duration.ofMillis(TIMEOUT))
+                   .timeout(timeoutFor(Operation.DELETE_DRAFT_DOI))
                    .build();
     }
 
@@ -160,16 +176,13 @@ public class MdsClient extends HttpSender {
                    .header(AUTHORIZATION_HEADER, customer.extractBasicAuthenticationString())
                    .header(UserAgent.USER_AGENT, UserAgentUtil.create(MdsClient.class))
                    .uri(createUriForAccessingMetadata(doi))
-                   .timeout(Duration.ofMillis(TIMEOUT))
+                   .timeout(timeoutFor(Operation.POST_METADATA))
                    .POST(HttpRequest.BodyPublishers.ofString(metadataDataCiteXml))
                    .build();
     }
 
     private URI createUriForAccessingMetadata(Doi doi) {
-        return UriWrapper.fromUri(dataciteMdsUri)
-                   .addChild(DATACITE_PATH_METADATA)
-                   .addChild(doi.toIdentifier())
-                   .getUri();
+        return metadataEndpoint.resolve(doi);
     }
 
     private HttpRequest createLandingPagePutRequest(CustomerConfig customer,
@@ -180,7 +193,7 @@ public class MdsClient extends HttpSender {
                    .header(HttpHeaders.CONTENT_TYPE, TEXT_PLAIN_CHARSET_UTF_8)
                    .header(AUTHORIZATION_HEADER, customer.extractBasicAuthenticationString())
                    .header(UserAgent.USER_AGENT, UserAgentUtil.create(MdsClient.class))
-                   .timeout(Duration.ofMillis(TIMEOUT))
+                   .timeout(timeoutFor(Operation.PUT_LANDING_PAGE))
                    .uri(createUriForAccessingDoi(doi))
                    .PUT(HttpRequest.BodyPublishers.ofString(
                        createRequestBodyForRegisterUrl(doi, landingPage)))
@@ -192,10 +205,7 @@ public class MdsClient extends HttpSender {
     }
 
     private URI createUriForAccessingDoi(Doi doi) {
-        return UriWrapper.fromUri(dataciteMdsUri)
-                   .addChild(DATACITE_PATH_DOI)
-                   .addChild(doi.toIdentifier())
-                   .getUri();
+        return doiEndpoint.resolve(doi);
     }
 
     private void validateLandingPageInput(Doi doi, URI landingPage) {
@@ -0,0 +1,81 @@
+package no.unit.nva.doi.datacite.clients;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import nva.commons.core.Environment;
+
+/**
+ * The response timeout of every request sent to DataCite, per operation. Each timeout can be overridden with the
+ * environment variable named by {@link Operation#environmentVariable()}, holding the timeout in milliseconds.
+ */
+public final class OperationTimeouts {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(2000);
+    private static final String ENVIRONMENT_VARIABLE_FORMAT = "DATACITE_TIMEOUT_%s_MS";
+
+    private final Map<Operation, Duration> timeouts;
+
+    private OperationTimeouts(Map<Operation, Duration> timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    public static OperationTimeouts defaults() {
+        var timeouts = new EnumMap<Operation, Duration>(Operation.class);
+        for (var operation : Operation.values()) {
+            timeouts.put(operation, DEFAULT_TIMEOUT);
+        }
+        return new OperationTimeouts(timeouts);
+    }
+
+    /**
+     * Reads the timeouts configured in the environment, using {@link #DEFAULT_TIMEOUT} for the operations without one.
+     *
+     * @param environment the environment to read from.
+     * @return the configured timeouts.
+     */
+    public static OperationTimeouts fromEnvironment(Environment environment) {
+        var timeouts = new EnumMap<>(defaults().timeouts);
+        for (var operation : Operation.values()) {
+            environment.readEnvOpt(operation.environmentVariable())
+                .map(Long::parseLong)
+                .map(Duration::ofMillis)
+                .ifPresent(timeout -> timeouts.put(operation, requirePositive(timeout)));
+        }
+        return new OperationTimeouts(timeouts);
+    }
+
+    public Duration timeoutFor(Operation operation) {
+        return timeouts.get(operation);
+    }
+
+    public OperationTimeouts withTimeout(Operation operation, Duration timeout) {
+        var copy = new EnumMap<>(timeouts);
+        copy.put(operation, requirePositive(timeout));
+        return new OperationTimeouts(copy);
+    }
+
+    private static Duration requirePositive(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive, was " + timeout);
+        }
+        return timeout;
+    }
+
+    /**
+     * The requests sent to DataCite.
+     */
+    public enum Operation {
+        CREATE_DOI,
+        GET_DOI,
+        POST_METADATA,
+        GET_METADATA,
+        DELETE_METADATA,
+        PUT_LANDING_PAGE,
+        DELETE_DRAFT_DOI;
+
+        public String environmentVariable() {
+            return String.format(ENVIRONMENT_VARIABLE_FORMAT, name());
+        }
+    }
+}
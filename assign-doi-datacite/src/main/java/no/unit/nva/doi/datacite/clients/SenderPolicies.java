@@ -0,0 +1,46 @@
+package no.unit.nva.doi.datacite.clients;
+
+import no.unit.nva.doi.datacite.clients.circuitbreaker.HostCircuitBreakers;
+import no.unit.nva.doi.datacite.clients.ratelimit.CustomerTokenBucketRateLimiter;
+import no.unit.nva.doi.datacite.clients.ratelimit.RateLimiter;
+import no.unit.nva.doi.datacite.clients.retry.JitteredBackoffRetryPolicy;
+import no.unit.nva.doi.datacite.clients.retry.RetryPolicy;
+import nva.commons.core.Environment;
+
+/**
+ * The policies an {@link HttpSender} applies around every request. Clients that talk to DataCite on behalf of the
+ * same accounts should share one instance, so that they draw from the same rate limits and circuits.
+ *
+ * @param retryPolicy     decides whether a failed attempt is repeated.
+ * @param rateLimiter     paces attempts per DataCite account.
+ * @param timeouts        the response timeout of each operation.
+ * @param circuitBreakers fail requests fast while the host they are sent to keeps failing.
+ */
+public record SenderPolicies(RetryPolicy retryPolicy,
+                             RateLimiter rateLimiter,
+                             OperationTimeouts timeouts,
+                             HostCircuitBreakers circuitBreakers) {
+
+    public static SenderPolicies defaults() {
+        return new SenderPolicies(JitteredBackoffRetryPolicy.defaultPolicy(),
+                                  new CustomerTokenBucketRateLimiter(),
+                                  OperationTimeouts.fromEnvironment(new Environment()),
+                                  new HostCircuitBreakers());
+    }
+
+    public SenderPolicies withRetryPolicy(RetryPolicy retryPolicy) {
+        return new SenderPolicies(retryPolicy, rateLimiter, timeouts, circuitBreakers);
+    }
+
+    public SenderPolicies withRateLimiter(RateLimiter rateLimiter) {
+        return new SenderPolicies(retryPolicy, rateLimiter, timeouts, circuitBreakers);
+    }
+
+    public SenderPolicies withTimeouts(OperationTimeouts timeouts) {
+        return new SenderPolicies(retryPolicy, rateLimiter, timeouts, circuitBreakers);
+    }
+
+    public SenderPolicies withCircuitBreakers(HostCircuitBreakers circuitBreakers) {
+        return new SenderPolicies(retryPolicy, rateLimiter, timeouts, circuitBreakers);
+    }
+}
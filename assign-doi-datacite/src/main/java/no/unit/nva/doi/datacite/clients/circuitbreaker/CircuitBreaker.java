@@ -0,0 +1,117 @@
+package no.unit.nva.doi.datacite.clients.circuitbreaker;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A circuit breaker for one endpoint. It opens after a number of consecutive failures, fails calls fast while open,
+ * and lets a limited number of probes through once the open duration has passed. A successful probe closes the
+ * circuit, a failed one opens it again.
+ */
+final class CircuitBreaker {
+
+    private final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final String endpoint;
+    private final CircuitBreakerSettings settings;
+    private final LongSupplier nanoClock;
+    private CircuitState currentState = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private int probesInFlight;
+    private long openedAtNanos;
+
+    CircuitBreaker(String endpoint, CircuitBreakerSettings settings, LongSupplier nanoClock) {
+        this.endpoint = endpoint;
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks to make a call. Every permitted call must report its outcome with {@link #onSuccess()} or
+     * {@link #onFailure()}, or give its permit back with {@link #onInconclusive()}.
+     *
+     * @return true when the call may be made.
+     */
+    boolean tryAcquirePermission() {
+        lock.lock();
+        try {
+            if (currentState == CircuitState.OPEN && openDurationHasPassed()) {
+                logger.info("Circuit for {} is half-open, probing", endpoint);
+                currentState = CircuitState.HALF_OPEN;
+                probesInFlight = 0;
+            }
+            if (currentState == CircuitState.HALF_OPEN && probesInFlight < settings.halfOpenProbes()) {
+                probesInFlight++;
+                return true;
+            }
+            return currentState == CircuitState.CLOSED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess() {
+        lock.lock();
+        try {
+            if (currentState != CircuitState.CLOSED) {
+                logger.info("Circuit for {} is closed", endpoint);
+            }
+            currentState = CircuitState.CLOSED;
+            consecutiveFailures = 0;
+            probesInFlight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            if (currentState == CircuitState.HALF_OPEN || consecutiveFailures >= settings.failureThreshold()) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back the permit of a call whose outcome says nothing about the endpoint, so that a probe of a half-open
+     * circuit can be made by another call.
+     */
+    void onInconclusive() {
+        lock.lock();
+        try {
+            if (currentState == CircuitState.HALF_OPEN && probesInFlight > 0) {
+                probesInFlight--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    CircuitState state() {
+        lock.lock();
+        try {
+            return currentState;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        if (currentState != CircuitState.OPEN) {
+            logger.warn("Circuit for {} is open after {} consecutive failures", endpoint, consecutiveFailures);
+        }
+        currentState = CircuitState.OPEN;
+        openedAtNanos = nanoClock.getAsLong();
+        probesInFlight = 0;
+    }
+
+    private boolean openDurationHasPassed() {
+        return nanoClock.getAsLong() - openedAtNanos >= settings.openDuration().toNanos();
+    }
+}
@@ -0,0 +1,22 @@
+package no.unit.nva.doi.datacite.clients.circuitbreaker;
+
+import java.time.Duration;
+
+/**
+ * When a {@link CircuitBreaker} opens, and how it probes whether the endpoint has recovered.
+ *
+ * @param failureThreshold the number of consecutive failures that opens the circuit.
+ * @param openDuration     how long an open circuit fails calls fast before letting probes through.
+ * @param halfOpenProbes   the number of probe calls let through at the same time while half-open.
+ */
+public record CircuitBreakerSettings(int failureThreshold, Duration openDuration, int halfOpenProbes) {
+
+    public static final CircuitBreakerSettings DEFAULT = new CircuitBreakerSettings(5, Duration.ofSeconds(30), 1);
+
+    public CircuitBreakerSettings {
+        if (failureThreshold <= 0 || halfOpenProbes <= 0 || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException(
+                "Circuit breaker needs a positive failure threshold, open duration and number of probes");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package no.unit.nva.doi.datacite.clients.circuitbreaker;
+
+/**
+ * The states of a {@link CircuitBreaker}.
+ */
+public enum CircuitState {
+    /**
+     * Calls pass through, and consecutive failures are counted.
+     */
+    CLOSED,
+    /**
+     * Calls fail fast until the open duration has passed.
+     */
+    OPEN,
+    /**
+     * A limited number of probe calls pass through. The outcome of a probe closes or reopens the circuit.
+     */
+    HALF_OPEN
+}
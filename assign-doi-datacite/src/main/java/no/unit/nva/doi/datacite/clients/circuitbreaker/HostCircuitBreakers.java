@@ -0,0 +1,69 @@
+package no.unit.nva.doi.datacite.clients.circuitbreaker;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps one {@link CircuitBreaker} per host, so that an outage of the DataCite MDS API does not stop calls to the
+ * DataCite REST API and the other way around.
+ */
+public class HostCircuitBreakers {
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final CircuitBreakerSettings settings;
+    private final LongSupplier nanoClock;
+
+    public HostCircuitBreakers() {
+        this(CircuitBreakerSettings.DEFAULT);
+    }
+
+    public HostCircuitBreakers(CircuitBreakerSettings settings) {
+        this(settings, System::nanoTime);
+    }
+
+    public HostCircuitBreakers(CircuitBreakerSettings settings, LongSupplier nanoClock) {
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks to call the given endpoint. Every permitted call must report its outcome with
+     * {@link #recordOutcome(URI, boolean)}, or give its permit back with {@link #releasePermission(URI)}.
+     *
+     * @param endpoint the URI about to be called.
+     * @return true when the circuit for the host of the endpoint lets the call through.
+     */
+    public boolean tryAcquirePermission(URI endpoint) {
+        return breakerFor(endpoint).tryAcquirePermission();
+    }
+
+    public void recordOutcome(URI endpoint, boolean failed) {
+        var breaker = breakerFor(endpoint);
+        if (failed) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    /**
+     * Gives back the permit of a call whose outcome says nothing about the health of the host, like a call that timed
+     * out because the caller's deadline left it too little time.
+     *
+     * @param endpoint the URI that was called.
+     */
+    public void releasePermission(URI endpoint) {
+        breakerFor(endpoint).onInconclusive();
+    }
+
+    public CircuitState state(URI endpoint) {
+        return breakerFor(endpoint).state();
+    }
+
+    private CircuitBreaker breakerFor(URI endpoint) {
+        return breakers.computeIfAbsent(endpoint.getAuthority(),
+                                        host -> new CircuitBreaker(host, settings, nanoClock));
+    }
+}
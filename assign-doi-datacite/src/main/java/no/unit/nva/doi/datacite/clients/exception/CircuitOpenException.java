@@ -0,0 +1,17 @@
+package no.unit.nva.doi.datacite.clients.exception;
+
+import java.net.http.HttpRequest;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * Exception thrown when a request is not sent because the circuit breaker for its host is open.
+ */
+@JacocoGenerated
+public class CircuitOpenException extends ClientException {
+
+    private static final String ERROR_MESSAGE_FORMAT = "Request %s not sent, the circuit for %s is open.";
+
+    public CircuitOpenException(HttpRequest request) {
+        super(String.format(ERROR_MESSAGE_FORMAT, request, request.uri().getAuthority()));
+    }
+}
@@ -0,0 +1,17 @@
+package no.unit.nva.doi.datacite.clients.exception;
+
+import java.net.http.HttpRequest;
+import nva.commons.core.JacocoGenerated;
+
+/**
+ * Exception thrown when a request is not sent because the deadline of the invocation has passed.
+ */
+@JacocoGenerated
+public class DeadlineExceededException extends ClientException {
+
+    private static final String ERROR_MESSAGE_FORMAT = "Request %s not sent, the request deadline has passed.";
+
+    public DeadlineExceededException(HttpRequest request) {
+        super(String.format(ERROR_MESSAGE_FORMAT, request));
+    }
+}
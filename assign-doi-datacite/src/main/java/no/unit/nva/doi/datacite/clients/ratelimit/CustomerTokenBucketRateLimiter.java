@@ -0,0 +1,134 @@
+package no.unit.nva.doi.datacite.clients.ratelimit;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Paces requests per DataCite repository account, since DataCite throttles each account separately. Each account gets
+ * its own {@link TokenBucket}, sized from the customer's configured {@link RateLimit} or the default limit. A delayed
+ * permit is handed out on the executor of the caller, rather than on the single thread that times delayed completions.
+ * How long callers of an account have waited is logged at most once per {@link #REPORT_INTERVAL}, when the account
+ * next hands out a permit.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public class CustomerTokenBucketRateLimiter implements RateLimiter {
+
+    public static final Duration REPORT_INTERVAL = Duration.ofMinutes(1);
+    private static final String ACCOUNT_SEPARATOR = "/";
+    private final Logger logger = LoggerFactory.getLogger(CustomerTokenBucketRateLimiter.class);
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final RateLimit defaultLimit;
+    private final LongSupplier nanoClock;
+
+    public CustomerTokenBucketRateLimiter() {
+        this(RateLimit.DEFAULT);
+    }
+
+    public CustomerTokenBucketRateLimiter(RateLimit defaultLimit) {
+        this(defaultLimit, System::nanoTime);
+    }
+
+    public CustomerTokenBucketRateLimiter(RateLimit defaultLimit, LongSupplier nanoClock) {
+        this.defaultLimit = defaultLimit;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> acquire(CustomerConfig customer, RequestDeadline deadline, Executor executor) {
+        var key = accountKey(customer);
+        var account = accounts.computeIfAbsent(key, ignored -> newAccount(customer));
+        var reservation = account.bucket.reserveWithin(deadline);
+        if (reservation.isEmpty()) {
+            logger.debug("Not delaying request for {} past its deadline", customer.getCustomerId());
+            return CompletableFuture.completedFuture(false);
+        }
+        var wait = reservation.get();
+        account.record(wait);
+        reportIfDue(key, account);
+        if (wait.isZero()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        logger.debug("Delaying request for {} by {} ms", customer.getCustomerId(), wait.toMillis());
+        var delayedExecutor = CompletableFuture.delayedExecutor(wait.toNanos(), TimeUnit.NANOSECONDS, executor);
+        return CompletableFuture.supplyAsync(() -> true, delayedExecutor);
+    }
+
+    /**
+     * Returns how long callers have waited per account since the limiter was created.
+     *
+     * @return one snapshot per account that has sent requests, ordered by account.
+     */
+    public List<RateLimiterMetrics> metrics() {
+        return accounts.entrySet().stream()
+                   .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                   .sorted(Comparator.comparing(RateLimiterMetrics::account))
+                   .toList();
+    }
+
+    private static String accountKey(CustomerConfig customer) {
+        return customer.getUsername() + ACCOUNT_SEPARATOR + customer.getDoiPrefix();
+    }
+
+    private Account newAccount(CustomerConfig customer) {
+        var bucket = new TokenBucket(customer.getRateLimit().orElse(defaultLimit), nanoClock);
+        return new Account(bucket, nanoClock.getAsLong());
+    }
+
+    private void reportIfDue(String key, Account account) {
+        if (account.claimReport(nanoClock.getAsLong())) {
+            logger.info("Rate limiter metrics: {}", account.snapshot(key));
+        }
+    }
+
+    private static final class Account {
+
+        private final TokenBucket bucket;
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder delayedAcquisitions = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final AtomicLong lastReportNanos;
+
+        private Account(TokenBucket bucket, long createdNanos) {
+            this.bucket = bucket;
+            this.lastReportNanos = new AtomicLong(createdNanos);
+        }
+
+        private boolean claimReport(long nowNanos) {
+            var lastReport = lastReportNanos.get();
+            return nowNanos - lastReport >= REPORT_INTERVAL.toNanos()
+                   && lastReportNanos.compareAndSet(lastReport, nowNanos);
+        }
+
+        private void record(Duration wait) {
+            acquisitions.increment();
+            if (!wait.isZero()) {
+                var waitNanos = wait.toNanos();
+                delayedAcquisitions.increment();
+                totalWaitNanos.add(waitNanos);
+                maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            }
+        }
+
+        private RateLimiterMetrics snapshot(String account) {
+            return new RateLimiterMetrics(account,
+                                          acquisitions.sum(),
+                                          delayedAcquisitions.sum(),
+                                          Duration.ofNanos(totalWaitNanos.sum()),
+                                          Duration.ofNanos(maxWaitNanos.get()));
+        }
+    }
+}
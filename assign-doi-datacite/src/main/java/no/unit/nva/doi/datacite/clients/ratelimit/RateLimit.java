@@ -0,0 +1,19 @@
+package no.unit.nva.doi.datacite.clients.ratelimit;
+
+/**
+ * The pace at which requests may be sent on behalf of one DataCite repository account.
+ *
+ * @param requestsPerSecond the sustained number of requests per second.
+ * @param burstCapacity     the number of requests that may be sent back to back after a quiet period.
+ */
+public record RateLimit(double requestsPerSecond, int burstCapacity) {
+
+    public static final RateLimit DEFAULT = new RateLimit(10, 20);
+
+    public RateLimit {
+        if (!Double.isFinite(requestsPerSecond) || requestsPerSecond <= 0 || burstCapacity <= 0) {
+            throw new IllegalArgumentException(
+                "Rate limit must allow a positive number of requests per second and a burst of at least one");
+        }
+    }
+}
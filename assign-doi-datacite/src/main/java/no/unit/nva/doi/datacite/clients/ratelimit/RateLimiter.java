@@ -0,0 +1,35 @@
+package no.unit.nva.doi.datacite.clients.ratelimit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfig;
+
+/**
+ * Paces the requests sent to DataCite on behalf of a customer.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+@FunctionalInterface
+public interface RateLimiter {
+
+    /**
+     * Takes a permit for sending one request on behalf of the customer's DataCite account. No permit is taken when the
+     * request would have to wait for it until past the deadline.
+     *
+     * @param customer the customer whose credentials the request is sent with.
+     * @param deadline the deadline the request must be sent before.
+     * @param executor the executor a delayed permit is handed out on.
+     * @return a future that completes with true when the request may be sent, or with false at once when it cannot be
+     *     sent before the deadline.
+     */
+    CompletableFuture<Boolean> acquire(CustomerConfig customer, RequestDeadline deadline, Executor executor);
+
+    /**
+     * A limiter that lets every request through immediately.
+     *
+     * @return a limiter without limits.
+     */
+    static RateLimiter unlimited() {
+        return (customer, deadline, executor) -> CompletableFuture.completedFuture(true);
+    }
+}
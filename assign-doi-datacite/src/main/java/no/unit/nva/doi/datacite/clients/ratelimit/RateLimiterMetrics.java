@@ -0,0 +1,20 @@
+package no.unit.nva.doi.datacite.clients.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of how much one DataCite repository account has been throttled on the client side.
+ *
+ * @param account               the account, as {@code username/prefix}.
+ * @param acquisitions          the number of requests that passed the limiter.
+ * @param delayedAcquisitions   the number of those requests that had to wait.
+ * @param totalWait             the accumulated time spent waiting.
+ * @param maxWait               the longest single wait.
+ */
+public record RateLimiterMetrics(String account,
+                                 long acquisitions,
+                                 long delayedAcquisitions,
+                                 Duration totalWait,
+                                 Duration maxWait) {
+
+}
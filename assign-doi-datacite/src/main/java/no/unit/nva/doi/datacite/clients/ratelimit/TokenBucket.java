@@ -0,0 +1,56 @@
+package no.unit.nva.doi.datacite.clients.ratelimit;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import no.unit.nva.datacite.commons.RequestDeadline;
+
+/**
+ * Token bucket that hands out reservations instead of blocking. A caller that finds the bucket empty takes a token on
+ * credit and is told how long to wait before using it, so callers queue up in arrival order at the configured rate.
+ * A caller that could not use the token before its deadline does not take it, so it is left for the callers behind.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double nanosPerToken;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(RateLimit rateLimit, LongSupplier nanoClock) {
+        this.nanosPerToken = NANOS_PER_SECOND / rateLimit.requestsPerSecond();
+        this.capacity = rateLimit.burstCapacity();
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes one token, unless the caller would have to wait for it until past the deadline.
+     *
+     * @param deadline the deadline the caller must use the token before.
+     * @return how long the caller must wait before the token may be used, {@link Duration#ZERO} if it is available, or
+     *     empty when no token was taken.
+     */
+    Optional<Duration> reserveWithin(RequestDeadline deadline) {
+        lock.lock();
+        try {
+            var now = nanoClock.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerToken);
+            lastRefillNanos = now;
+            var remaining = tokens - 1;
+            var wait = remaining >= 0 ? Duration.ZERO : Duration.ofNanos(Math.round(-remaining * nanosPerToken));
+            if (!deadline.allows(wait)) {
+                return Optional.empty();
+            }
+            tokens = remaining;
+            return Optional.of(wait);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
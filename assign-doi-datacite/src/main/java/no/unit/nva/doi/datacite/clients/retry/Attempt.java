@@ -0,0 +1,44 @@
+package no.unit.nva.doi.datacite.clients.retry;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The outcome of one attempt at sending a request. Exactly one of {@code response} and {@code failure} is set.
+ *
+ * @param request       the request that was sent.
+ * @param response      the response, when one was received.
+ * @param failure       the failure, when no response was received.
+ * @param number        the number of the attempt, starting at 1.
+ * @param previousDelay the delay that preceded this attempt, {@link Duration#ZERO} for the first attempt.
+ * @param elapsed       the time spent since the first attempt started.
+ * @param repeatable    whether the request cannot have any further effect when it is sent again, although its method
+ *                      is not idempotent, such as the reservation of a DOI with a given suffix.
+ */
+public record Attempt(HttpRequest request,
+                      HttpResponse<String> response,
+                      Throwable failure,
+                      int number,
+                      Duration previousDelay,
+                      Duration elapsed,
+                      boolean repeatable) {
+
+    public Attempt(HttpRequest request,
+                   HttpResponse<String> response,
+                   Throwable failure,
+                   int number,
+                   Duration previousDelay,
+                   Duration elapsed) {
+        this(request, response, failure, number, previousDelay, elapsed, false);
+    }
+
+    public Optional<HttpResponse<String>> responseIfPresent() {
+        return Optional.ofNullable(response);
+    }
+
+    public Optional<Throwable> failureIfPresent() {
+        return Optional.ofNullable(failure);
+    }
+}
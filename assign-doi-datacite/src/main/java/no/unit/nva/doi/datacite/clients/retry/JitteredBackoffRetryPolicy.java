@@ -0,0 +1,174 @@
+package no.unit.nva.doi.datacite.clients.retry;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import no.unit.nva.doi.datacite.clients.ClientFutures;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+
+/**
+ * Retries transient DataCite failures with exponential backoff and decorrelated jitter.
+ *
+ * <p>Idempotent requests (GET, PUT, DELETE, HEAD), and requests the sender marks as {@link Attempt#repeatable()}, are
+ * retried on throttling, gateway errors and I/O failures.
+ * Other requests are only retried when DataCite cannot have acted on them: on 429 and 503, and when no connection
+ * could be made. A DELETE whose response was lost is not repeated either, since the first attempt may already have
+ * removed the resource and the repeat would be answered with 404. A {@code Retry-After} header is honoured as a
+ * lower bound for the delay, and no attempt is scheduled that would start after the total time budget is spent.
+ */
+public final class JitteredBackoffRetryPolicy implements RetryPolicy {
+
+    public static final Duration DEFAULT_BASE_DELAY = Duration.ofMillis(200);
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_MAX_ELAPSED = Duration.ofSeconds(20);
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    private static final int JITTER_GROWTH_FACTOR = 3;
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "PUT", "DELETE", "HEAD");
+    private static final String DELETE = "DELETE";
+    private static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(HttpStatus.SC_TOO_MANY_REQUESTS,
+                                                                      HttpStatus.SC_BAD_GATEWAY,
+                                                                      HttpStatus.SC_SERVICE_UNAVAILABLE,
+                                                                      HttpStatus.SC_GATEWAY_TIMEOUT);
+    private static final Set<Integer> NOT_PROCESSED_STATUS_CODES = Set.of(HttpStatus.SC_TOO_MANY_REQUESTS,
+                                                                          HttpStatus.SC_SERVICE_UNAVAILABLE);
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Duration maxElapsed;
+    private final int maxAttempts;
+    private final Clock clock;
+
+    private JitteredBackoffRetryPolicy(Builder builder) {
+        this.baseDelay = builder.baseDelay;
+        this.maxDelay = builder.maxDelay;
+        this.maxElapsed = builder.maxElapsed;
+        this.maxAttempts = builder.maxAttempts;
+        this.clock = builder.clock;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static JitteredBackoffRetryPolicy defaultPolicy() {
+        return builder().build();
+    }
+
+    @Override
+    public Optional<Duration> nextDelay(Attempt attempt) {
+        if (attempt.number() >= maxAttempts || !isRetryable(attempt)) {
+            return Optional.empty();
+        }
+        var delay = max(jitteredDelay(attempt.previousDelay()), retryAfter(attempt).orElse(Duration.ZERO));
+        return attempt.elapsed().plus(delay).compareTo(maxElapsed) <= 0
+                   ? Optional.of(delay)
+                   : Optional.empty();
+    }
+
+    private static boolean isRetryable(Attempt attempt) {
+        var method = attempt.request().method();
+        var idempotent = IDEMPOTENT_METHODS.contains(method) || attempt.repeatable();
+        var outcomeRepeatable = idempotent && !DELETE.equals(method);
+        return attempt.responseIfPresent()
+                   .map(response -> isRetryableStatus(response.statusCode(), idempotent))
+                   .orElseGet(() -> isRetryableFailure(attempt.failure(), outcomeRepeatable));
+    }
+
+    private static boolean isRetryableStatus(int statusCode, boolean idempotent) {
+        return idempotent
+                   ? RETRYABLE_STATUS_CODES.contains(statusCode)
+                   : NOT_PROCESSED_STATUS_CODES.contains(statusCode);
+    }
+
+    private static boolean isRetryableFailure(Throwable failure, boolean outcomeRepeatable) {
+        var cause = ClientFutures.unwrap(failure);
+        return outcomeRepeatable
+                   ? cause instanceof IOException
+                   : cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException;
+    }
+
+    private static Duration max(Duration first, Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+
+    private Duration jitteredDelay(Duration previousDelay) {
+        var lower = baseDelay.toMillis();
+        var upper = Math.max(lower, previousDelay.toMillis() * JITTER_GROWTH_FACTOR);
+        var delay = upper > lower ? ThreadLocalRandom.current().nextLong(lower, upper + 1) : lower;
+        return Duration.ofMillis(Math.min(delay, maxDelay.toMillis()));
+    }
+
+    private Optional<Duration> retryAfter(Attempt attempt) {
+        return attempt.responseIfPresent()
+                   .flatMap(JitteredBackoffRetryPolicy::retryAfterHeader)
+                   .flatMap(this::parseRetryAfter);
+    }
+
+    private static Optional<String> retryAfterHeader(HttpResponse<String> response) {
+        return response.headers().firstValue(HttpHeaders.RETRY_AFTER);
+    }
+
+    private Optional<Duration> parseRetryAfter(String value) {
+        var trimmed = value.trim();
+        if (trimmed.chars().allMatch(Character::isDigit) && !trimmed.isEmpty()) {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(trimmed)));
+        }
+        try {
+            var retryAt = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            var untilRetry = Duration.between(clock.instant(), retryAt);
+            return Optional.of(untilRetry.isNegative() ? Duration.ZERO : untilRetry);
+        } catch (DateTimeParseException exception) {
+            return Optional.empty();
+        }
+    }
+
+    public static final class Builder {
+
+        private Duration baseDelay = DEFAULT_BASE_DELAY;
+        private Duration maxDelay = DEFAULT_MAX_DELAY;
+        private Duration maxElapsed = DEFAULT_MAX_ELAPSED;
+        private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public Builder withBaseDelay(Duration baseDelay) {
+            this.baseDelay = baseDelay;
+            return this;
+        }
+
+        public Builder withMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public Builder withMaxElapsed(Duration maxElapsed) {
+            this.maxElapsed = maxElapsed;
+            return this;
+        }
+
+        public Builder withMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder withClock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public JitteredBackoffRetryPolicy build() {
+            return new JitteredBackoffRetryPolicy(this);
+        }
+    }
+}
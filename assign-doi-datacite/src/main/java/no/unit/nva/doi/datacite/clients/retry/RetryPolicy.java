@@ -0,0 +1,28 @@
+package no.unit.nva.doi.datacite.clients.retry;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Decides whether a failed attempt at sending a request to DataCite should be repeated, and how long to wait first.
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+
+    /**
+     * Returns the delay before the next attempt, or empty when the outcome of the attempt is final.
+     *
+     * @param attempt the outcome of the attempt that was just made.
+     * @return the delay before the next attempt, or empty if no further attempt should be made.
+     */
+    Optional<Duration> nextDelay(Attempt attempt);
+
+    /**
+     * A policy that never retries.
+     *
+     * @return a policy that treats the first outcome as final.
+     */
+    static RetryPolicy noRetries() {
+        return attempt -> Optional.empty();
+    }
+}
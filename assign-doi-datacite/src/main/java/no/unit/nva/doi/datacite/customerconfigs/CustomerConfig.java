@@ -1,9 +1,13 @@
 package no.unit.nva.doi.datacite.customerconfigs;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Objects;
+import java.util.Optional;
+import no.unit.nva.doi.datacite.clients.ratelimit.RateLimit;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.StringUtils;
 
@@ -11,32 +15,74 @@ public class CustomerConfig {
 
     private static final String ERROR_HAS_INVALID_CONFIGURATION = " has invalid configuration!";
     private static final String COLON = ":";
+    private static final String BURST_WITHOUT_RATE_MESSAGE =
+        " has a DataCite burst capacity but no DataCite requests per second";
 
     private final URI customerId;
     private final String password;
     private final String username;
     private final String doiPrefix;
+    private final RateLimit rateLimit;
+    private final String basicAuthenticationString;
 
+    public CustomerConfig(final URI customerId,
+                          final String password,
+                          final String username,
+                          final String doiPrefix) {
+        this(customerId, password, username, doiPrefix, null, null);
+    }
+
+    /**
+     * Creates a customer config. The rate settings are validated here, so a customer secret with malformed rate
+     * settings fails to load instead of failing the requests sent on behalf of the customer.
+     *
+     * @throws IllegalArgumentException if the rate settings do not allow any requests, or a burst capacity is given
+     *                                  without a rate.
+     */
+    @JsonCreator
     public CustomerConfig(@JsonProperty("customerId") final URI customerId,
                           @JsonProperty("dataCiteMdsClientPassword") final String password,
                           @JsonProperty("dataCiteMdsClientUsername") final String username,
-                          @JsonProperty("customerDoiPrefix") final String doiPrefix) {
+                          @JsonProperty("customerDoiPrefix") final String doiPrefix,
+                          @JsonProperty("dataCiteRequestsPerSecond") final Double requestsPerSecond,
+                          @JsonProperty("dataCiteBurstCapacity") final Integer burstCapacity) {
         this.customerId = customerId;
         this.password = password;
         this.username = username;
         this.doiPrefix = doiPrefix;
+        this.rateLimit = parseRateLimit(customerId, requestsPerSecond, burstCapacity);
+        this.basicAuthenticationString = isFullyConfigured() ? basicAuth(username, password) : null;
     }
 
+    /**
+     * Returns the value of the Authorization header for the customer's DataCite account. The value is computed once,
+     * when the config is created.
+     *
+     * @return the Basic authentication header value.
+     * @throws CustomerConfigException if the customer is missing credentials or a DOI prefix.
+     */
     public String extractBasicAuthenticationString()
         throws CustomerConfigException {
-        if (!isFullyConfigured()) {
+        if (basicAuthenticationString == null) {
             throw new CustomerConfigException(customerId + ERROR_HAS_INVALID_CONFIGURATION);
         }
-        return basicAuth(username, password);
+        return basicAuthenticationString;
+    }
+
+    private static RateLimit parseRateLimit(URI customerId, Double requestsPerSecond, Integer burstCapacity) {
+        if (requestsPerSecond == null) {
+            if (burstCapacity != null) {
+                throw new IllegalArgumentException(customerId + BURST_WITHOUT_RATE_MESSAGE);
+            }
+            return null;
+        }
+        var burst = Optional.ofNullable(burstCapacity).orElse((int) Math.max(1, Math.ceil(requestsPerSecond)));
+        return new RateLimit(requestsPerSecond, burst);
     }
 
     private static String basicAuth(String username, String password) {
-        return "Basic " + Base64.getEncoder().encodeToString((username + COLON + password).getBytes());
+        var credentials = (username + COLON + password).getBytes(StandardCharsets.UTF_8);
+        return "Basic " + Base64.getEncoder().encodeToString(credentials);
     }
 
     private boolean isFullyConfigured() {
@@ -53,6 +99,20 @@ public class CustomerConfig {
         return doiPrefix;
     }
 
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Returns the rate limit agreed for the customer's DataCite account, if one is configured. A missing burst
+     * capacity defaults to one second worth of requests.
+     *
+     * @return the configured rate limit, or empty if the default limit applies.
+     */
+    public Optional<RateLimit> getRateLimit() {
+        return Optional.ofNullable(rateLimit);
+    }
+
     @JacocoGenerated
     @Override
     public boolean equals(Object o) {
@@ -66,12 +126,13 @@ public class CustomerConfig {
         return Objects.equals(customerId, that.customerId)
                && Objects.equals(password, that.password)
                && Objects.equals(username, that.username)
-               && Objects.equals(doiPrefix, that.doiPrefix);
+               && Objects.equals(doiPrefix, that.doiPrefix)
+               && Objects.equals(rateLimit, that.rateLimit);
     }
 
     @JacocoGenerated
     @Override
     public int hashCode() {
-        return Objects.hash(customerId, password, username, doiPrefix);
+        return Objects.hash(customerId, password, username, doiPrefix, rateLimit);
     }
 }
@@ -0,0 +1,22 @@
+package no.unit.nva.doi.datacite.customerconfigs;
+
+import java.time.Duration;
+
+/**
+ * How {@link CustomerConfigExtractorImpl} caches customer configs.
+ *
+ * @param timeToLive             how long a loaded snapshot is used before it is reloaded in the background.
+ * @param missReloadInterval     the minimum time between reloads triggered by lookups that miss.
+ * @param negativeTimeToLive     how long a customer id or DOI prefix that could not be found is remembered as missing.
+ * @param negativeCacheCapacity  the maximum number of missing customer ids and DOI prefixes remembered.
+ */
+public record CustomerConfigCacheSettings(Duration timeToLive,
+                                          Duration missReloadInterval,
+                                          Duration negativeTimeToLive,
+                                          int negativeCacheCapacity) {
+
+    public static final CustomerConfigCacheSettings DEFAULT = new CustomerConfigCacheSettings(Duration.ofMinutes(15),
+                                                                                              Duration.ofSeconds(30),
+                                                                                              Duration.ofMinutes(1),
+                                                                                              1000);
+}
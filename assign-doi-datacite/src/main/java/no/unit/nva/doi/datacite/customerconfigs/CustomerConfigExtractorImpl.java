@@ -1,24 +1,52 @@
 package no.unit.nva.doi.datacite.customerconfigs;
 
-import static java.util.Objects.nonNull;
 import static nva.commons.core.attempt.Try.attempt;
 import java.net.URI;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import no.unit.nva.commons.json.JsonUtils;
 import no.unit.nva.doi.models.Doi;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.secrets.SecretsReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Reads customer configs from Secrets Manager and keeps them as an immutable snapshot.
+ *
+ * <p>The snapshot is reloaded in the background once it is older than the time to live, while readers keep using the
+ * previous one. A lookup that misses triggers a reload, at most once per miss reload interval, so that newly onboarded
+ * customers are found without a stampede of Secrets Manager calls. At most one reload runs at a time, and only the
+ * very first load, or the reader whose miss started a reload, waits for it. Customer ids and DOI prefixes that are
+ * still missing after that reload are remembered for a short while, so that repeated lookups of unknown or foreign DOIs
+ * fail fast instead of triggering more reloads. A miss that did not reload is not remembered. What is remembered
+ * belongs to the snapshot it was missing from, and is dropped with it when the next snapshot is loaded.
+ */
 public class CustomerConfigExtractorImpl implements CustomerConfigExtractor {
 
+    private static final String DOI_PREFIX_KEY = "doi-prefix:";
+    private static final String CUSTOMER_ID_KEY = "customer-id:";
+    private final Logger logger = LoggerFactory.getLogger(CustomerConfigExtractorImpl.class);
     private final SecretsReader secretsReader;
     private final String secretName;
     private final String secretKey;
-
-    private final Map<String, CustomerConfig> customerConfigs;
+    private final Duration timeToLive;
+    private final Duration missReloadInterval;
+    private final Clock clock;
+    private final Executor reloadExecutor;
+    private final CustomerConfigCacheSettings settings;
+    private final AtomicReference<Snapshot> customerConfigs = new AtomicReference<>();
+    private final AtomicReference<Instant> nextRefresh = new AtomicReference<>(Instant.MIN);
+    private final AtomicReference<Instant> nextMissReload = new AtomicReference<>(Instant.MIN);
+    private final AtomicReference<CompletableFuture<Snapshot>> reloadInFlight = new AtomicReference<>();
 
     @JacocoGenerated
     public CustomerConfigExtractorImpl(String secretName,
@@ -29,37 +57,129 @@ public class CustomerConfigExtractorImpl implements CustomerConfigExtractor {
     public CustomerConfigExtractorImpl(SecretsReader secretsReader,
                                        String secretName,
                                        String secretKey) {
+        this(secretsReader,
+             secretName,
+             secretKey,
+             CustomerConfigCacheSettings.DEFAULT,
+             Clock.systemUTC(),
+             ForkJoinPool.commonPool());
+    }
+
+    public CustomerConfigExtractorImpl(SecretsReader secretsReader,
+                                       String secretName,
+                                       String secretKey,
+                                       CustomerConfigCacheSettings settings,
+                                       Clock clock,
+                                       Executor reloadExecutor) {
         this.secretsReader = secretsReader;
         this.secretName = secretName;
         this.secretKey = secretKey;
-        this.customerConfigs = new HashMap<>();
+        this.timeToLive = settings.timeToLive();
+        this.missReloadInterval = settings.missReloadInterval();
+        this.clock = clock;
+        this.reloadExecutor = reloadExecutor;
+        this.settings = settings;
     }
 
     @Override
     public CustomerConfig getCustomerConfig(final Doi doi)
         throws CustomerConfigException {
         var doiPrefix = doi.getPrefix();
-        readCustomerConfigFromSecretsReaderIfCustomerConfigsIsEmpty();
-        return Optional.ofNullable(customerConfigs.get(doiPrefix))
-                   .orElseThrow(CustomerConfigException::new);
+        return lookup(DOI_PREFIX_KEY + doiPrefix, index -> index.findByDoiPrefix(doiPrefix));
     }
 
     @Override
     public CustomerConfig getCustomerConfig(URI customerId) throws CustomerConfigException {
-        readCustomerConfigFromSecretsReaderIfCustomerConfigsIsEmpty();
-        return Optional.ofNullable(customerConfigs.get(customerId.toString()))
-                .orElseThrow(CustomerConfigException::new);
+        return lookup(CUSTOMER_ID_KEY + customerId, index -> index.findByCustomerId(customerId));
+    }
+
+    private static CustomerConfigException toCustomerConfigException(Throwable failure) {
+        var cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause()
+                        : failure;
+        return cause instanceof CustomerConfigException customerConfigException
+                   ? customerConfigException
+                   : new CustomerConfigException(new IllegalStateException(cause));
     }
 
-    private void readCustomerConfigFromSecretsReaderIfCustomerConfigsIsEmpty() throws CustomerConfigException {
-        if (customerConfigs.isEmpty()) {
-            readCustomerConfigFromSecretsReader();
+    private CustomerConfig lookup(String key, Function<CustomerConfigIndex, Optional<CustomerConfig>> finder)
+        throws CustomerConfigException {
+        var snapshot = currentSnapshot();
+        var found = finder.apply(snapshot.configs());
+        if (found.isPresent()) {
+            return found.get();
+        }
+        if (snapshot.knownMissing().isKnownMissing(key)) {
+            throw new CustomerConfigNotFoundException();
         }
+        var reloaded = reloadAfterMiss().orElseThrow(CustomerConfigNotFoundException::new);
+        var foundAfterReload = finder.apply(reloaded.configs());
+        if (foundAfterReload.isEmpty()) {
+            reloaded.knownMissing().remember(key);
+        }
+        return foundAfterReload.orElseThrow(CustomerConfigNotFoundException::new);
     }
 
-    private void readCustomerConfigFromSecretsReader() throws CustomerConfigException {
-        var customerConfigs = extractCustomerConfigsFromSecretsReader();
-        createCustomersMap(customerConfigs);
+    private Snapshot currentSnapshot() throws CustomerConfigException {
+        var snapshot = customerConfigs.get();
+        if (snapshot == null) {
+            return await(reload());
+        }
+        if (!clock.instant().isBefore(nextRefresh.get())) {
+            reload();
+        }
+        return snapshot;
+    }
+
+    private Optional<Snapshot> reloadAfterMiss() throws CustomerConfigException {
+        if (reloadInFlight.get() != null || !claimMissReload()) {
+            return Optional.empty();
+        }
+        return Optional.of(await(reload()));
+    }
+
+    private boolean claimMissReload() {
+        var now = clock.instant();
+        var allowedFrom = nextMissReload.get();
+        return !now.isBefore(allowedFrom) && nextMissReload.compareAndSet(allowedFrom, now.plus(missReloadInterval));
+    }
+
+    private CompletableFuture<Snapshot> reload() {
+        var reload = new CompletableFuture<Snapshot>();
+        var alreadyRunning = reloadInFlight.compareAndExchange(null, reload);
+        if (alreadyRunning != null) {
+            return alreadyRunning;
+        }
+        reloadExecutor.execute(() -> runReload(reload));
+        return reload;
+    }
+
+    private void runReload(CompletableFuture<Snapshot> reload) {
+        try {
+            var snapshot = new Snapshot(CustomerConfigIndex.of(extractCustomerConfigsFromSecretsReader()),
+                                        new NegativeLookupCache(settings.negativeTimeToLive(),
+                                                                settings.negativeCacheCapacity(),
+                                                                clock));
+            var loadedAt = clock.instant();
+            customerConfigs.set(snapshot);
+            nextRefresh.set(loadedAt.plus(timeToLive));
+            nextMissReload.set(loadedAt.plus(missReloadInterval));
+            reloadInFlight.set(null);
+            reload.complete(snapshot);
+        } catch (CustomerConfigException | RuntimeException exception) {
+            logger.warn("Could not reload customer configs: {}", exception.getMessage());
+            nextRefresh.set(clock.instant().plus(missReloadInterval));
+            reloadInFlight.set(null);
+            reload.completeExceptionally(exception);
+        }
+    }
+
+    private Snapshot await(CompletableFuture<Snapshot> reload) throws CustomerConfigException {
+        try {
+            return reload.join();
+        } catch (CompletionException exception) {
+            throw toCustomerConfigException(exception);
+        }
     }
 
     private CustomerConfig[] extractCustomerConfigsFromSecretsReader()
@@ -77,12 +197,10 @@ public class CustomerConfigExtractorImpl implements CustomerConfigExtractor {
                    .orElseThrow(fail -> new CustomerConfigException(fail.getException()));
     }
 
-    private void createCustomersMap(final CustomerConfig... customers) {
-        Arrays.stream(customers)
-            .filter(customer -> nonNull(customer.getDoiPrefix()))
-            .forEach(customer -> {
-                customerConfigs.put(customer.getCustomerId().toString(), customer);
-                customerConfigs.put(customer.getDoiPrefix(), customer);
-            });
+    /**
+     * The loaded configs, together with the keys found to be missing from them.
+     */
+    private record Snapshot(CustomerConfigIndex configs, NegativeLookupCache knownMissing) {
+
     }
 }
@@ -0,0 +1,43 @@
+package no.unit.nva.doi.datacite.customerconfigs;
+
+import static java.util.Objects.nonNull;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable lookup of customer configs by customer id and by DOI prefix, built once per load of the configs.
+ */
+final class CustomerConfigIndex {
+
+    private final Map<String, CustomerConfig> byCustomerId;
+    private final Map<String, CustomerConfig> byDoiPrefix;
+
+    private CustomerConfigIndex(Map<String, CustomerConfig> byCustomerId,
+                                Map<String, CustomerConfig> byDoiPrefix) {
+        this.byCustomerId = byCustomerId;
+        this.byDoiPrefix = byDoiPrefix;
+    }
+
+    static CustomerConfigIndex of(CustomerConfig... customers) {
+        var byCustomerId = new HashMap<String, CustomerConfig>();
+        var byDoiPrefix = new HashMap<String, CustomerConfig>();
+        Arrays.stream(customers)
+            .filter(customer -> nonNull(customer.getDoiPrefix()))
+            .forEach(customer -> {
+                byCustomerId.put(customer.getCustomerId().toString(), customer);
+                byDoiPrefix.put(customer.getDoiPrefix(), customer);
+            });
+        return new CustomerConfigIndex(Map.copyOf(byCustomerId), Map.copyOf(byDoiPrefix));
+    }
+
+    Optional<CustomerConfig> findByCustomerId(URI customerId) {
+        return Optional.ofNullable(byCustomerId.get(customerId.toString()));
+    }
+
+    Optional<CustomerConfig> findByDoiPrefix(String doiPrefix) {
+        return Optional.ofNullable(byDoiPrefix.get(doiPrefix));
+    }
+}
@@ -0,0 +1,16 @@
+package no.unit.nva.doi.datacite.customerconfigs;
+
+/**
+ * Thrown when no customer is configured for a customer id or DOI prefix, as opposed to the configuration failing to
+ * load.
+ */
+public class CustomerConfigNotFoundException extends CustomerConfigException {
+
+    public CustomerConfigNotFoundException() {
+        super();
+    }
+
+    public CustomerConfigNotFoundException(String message) {
+        super(message);
+    }
+}
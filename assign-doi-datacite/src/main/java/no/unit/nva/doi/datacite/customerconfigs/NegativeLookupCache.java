@@ -0,0 +1,58 @@
+package no.unit.nva.doi.datacite.customerconfigs;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, least-recently-used set of lookup keys that were recently found to be missing, each remembered for a
+ * limited time.
+ */
+final class NegativeLookupCache {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Duration timeToLive;
+    private final Clock clock;
+    private final Map<String, Instant> expiryByKey;
+
+    NegativeLookupCache(Duration timeToLive, int capacity, Clock clock) {
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.expiryByKey = new LinkedHashMap<>(capacity, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Instant> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    boolean isKnownMissing(String key) {
+        lock.lock();
+        try {
+            var expiry = expiryByKey.get(key);
+            if (expiry == null) {
+                return false;
+            }
+            if (clock.instant().isBefore(expiry)) {
+                return true;
+            }
+            expiryByKey.remove(key);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remember(String key) {
+        lock.lock();
+        try {
+            expiryByKey.put(key, clock.instant().plus(timeToLive));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
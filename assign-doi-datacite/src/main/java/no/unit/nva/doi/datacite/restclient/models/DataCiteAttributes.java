@@ -0,0 +1,69 @@
+package no.unit.nva.doi.datacite.restclient.models;
+
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static nva.commons.core.attempt.Try.attempt;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads string attributes out of a DataCite REST API document ({@code {"data": {"attributes": {...}}}}) without
+ * building a tree of it. Everything outside {@code data.attributes} is skipped, and parsing stops as soon as all the
+ * requested attributes have been read, so the metadata, relationships and counts DataCite includes in its responses are
+ * never materialized.
+ */
+final class DataCiteAttributes {
+
+    private DataCiteAttributes() {
+    }
+
+    /**
+     * Reads the requested attributes.
+     *
+     * @param json   a DataCite REST API document.
+     * @param fields the names of the attributes to read.
+     * @return the textual value of each requested attribute that is present. Attributes that are not strings are
+     *     mapped to null, as {@link com.fasterxml.jackson.databind.JsonNode#textValue()} does.
+     */
+    static Map<String, String> read(String json, Set<String> fields) {
+        return attempt(() -> parse(json, fields)).orElseThrow();
+    }
+
+    private static Map<String, String> parse(String json, Set<String> fields) throws IOException {
+        var values = new HashMap<String, String>();
+        try (var parser = dtoObjectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                && seekObject(parser, DraftDoiDto.DATA_FIELD)
+                && seekObject(parser, DraftDoiDto.ATTRIBUTES_FIELD)) {
+                readFields(parser, fields, values);
+            }
+        }
+        return values;
+    }
+
+    private static boolean seekObject(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT && name.equals(fieldName)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static void readFields(JsonParser parser, Set<String> fields, Map<String, String> values)
+        throws IOException {
+        while (values.size() < fields.size() && parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            var token = parser.nextToken();
+            if (fields.contains(fieldName)) {
+                values.put(fieldName, token == JsonToken.VALUE_STRING ? parser.getText() : null);
+            }
+            parser.skipChildren();
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package no.unit.nva.doi.datacite.restclient.models;
 
-import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
-import static nva.commons.core.attempt.Try.attempt;
-import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Set;
 import nva.commons.core.JacocoGenerated;
 
 public class DoiStateDto {
@@ -11,6 +9,8 @@ public class DoiStateDto {
     public static final String ATTRIBUTES_FIELD = "attributes";
     public static final String STATE = "state";
     public static final String DOI = "doi";
+    private static final Set<String> ATTRIBUTES = Set.of(DOI, STATE);
+    private static final Set<String> STATE_ATTRIBUTE = Set.of(STATE);
 
     private final String doi;
     private final State state;
@@ -31,18 +31,24 @@ public class DoiStateDto {
     }
 
     /**
-     * Create a DoiStateDto from a Json string.
+     * Create a DoiStateDto from a Json string. Parsing stops once the DOI and its state have been read, so the
+     * metadata included in the response is skipped.
      *
      * @param json a json object as it is expected and retuned from GET /dois/id endpoint in DataCite.
      * @return a DoiStateDto.
      */
     public static DoiStateDto fromJson(String json) {
-        JsonNode tree = attempt(() -> dtoObjectMapper.readTree(json)).orElseThrow();
-        JsonNode attributes = tree.path(DATA_FIELD).path(ATTRIBUTES_FIELD);
-
-        String doi = attributes.path(DOI).textValue();
-        var state = attributes.path(STATE).textValue();
+        var attributes = DataCiteAttributes.read(json, ATTRIBUTES);
+        return new DoiStateDto(attributes.get(DOI), State.fromValue(attributes.get(STATE)));
+    }
 
-        return new DoiStateDto(doi, State.fromValue(state));
+    /**
+     * Read only the state from a Json string, such as the response to GET /dois/id?fields[dois]=state.
+     *
+     * @param json a json object as it is returned from GET /dois/id endpoint in DataCite.
+     * @return the state of the DOI.
+     */
+    public static State stateFromJson(String json) {
+        return State.fromValue(DataCiteAttributes.read(json, STATE_ATTRIBUTE).get(STATE));
     }
 }
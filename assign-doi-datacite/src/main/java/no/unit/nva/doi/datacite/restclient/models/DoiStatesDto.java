@@ -0,0 +1,106 @@
+package no.unit.nva.doi.datacite.restclient.models;
+
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static nva.commons.core.attempt.Try.attempt;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One page of the response to GET /dois?ids=... in DataCite, holding the id and state of every DOI on the page and the
+ * link to the next page, if any. The response is read with a streaming parser, skipping everything else.
+ */
+public final class DoiStatesDto {
+
+    public static final String DATA_FIELD = "data";
+    public static final String ID_FIELD = "id";
+    public static final String ATTRIBUTES_FIELD = "attributes";
+    public static final String STATE_FIELD = "state";
+    public static final String LINKS_FIELD = "links";
+    public static final String NEXT_FIELD = "next";
+
+    private final List<DoiStateDto> dois;
+    private final URI next;
+
+    private DoiStatesDto(List<DoiStateDto> dois, URI next) {
+        this.dois = dois;
+        this.next = next;
+    }
+
+    /**
+     * Create a DoiStatesDto from a Json string.
+     *
+     * @param json a json object as it is returned from the GET /dois endpoint in DataCite.
+     * @return a DoiStatesDto.
+     */
+    public static DoiStatesDto fromJson(String json) {
+        return attempt(() -> parse(json)).orElseThrow();
+    }
+
+    public List<DoiStateDto> getDois() {
+        return dois;
+    }
+
+    public Optional<URI> getNext() {
+        return Optional.ofNullable(next);
+    }
+
+    private static DoiStatesDto parse(String json) throws IOException {
+        var dois = new ArrayList<DoiStateDto>();
+        String next = null;
+        try (var parser = dtoObjectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new DoiStatesDto(dois, null);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var fieldName = parser.currentName();
+                var token = parser.nextToken();
+                if (DATA_FIELD.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                    readDois(parser, dois);
+                } else if (LINKS_FIELD.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                    next = readString(parser, NEXT_FIELD);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new DoiStatesDto(dois, next == null ? null : URI.create(next));
+    }
+
+    private static void readDois(JsonParser parser, List<DoiStateDto> dois) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String id = null;
+            String state = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var fieldName = parser.currentName();
+                var token = parser.nextToken();
+                if (ID_FIELD.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                    id = parser.getText();
+                } else if (ATTRIBUTES_FIELD.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                    state = readString(parser, STATE_FIELD);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            dois.add(new DoiStateDto(id, State.fromValue(state)));
+        }
+    }
+
+    private static String readString(JsonParser parser, String name) throws IOException {
+        String value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            var token = parser.nextToken();
+            if (name.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+                value = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+}
@@ -2,8 +2,9 @@ package no.unit.nva.doi.datacite.restclient.models;
 
 import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
 import static nva.commons.core.attempt.Try.attempt;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Set;
 import no.unit.nva.doi.models.Doi;
 import nva.commons.core.JacocoGenerated;
 
@@ -22,6 +23,7 @@ public class DraftDoiDto {
     public static final String TYPE_FIELD_VALUE = "dois";
 
     private static final String PATH_SEPARATOR = "/";
+    private static final Set<String> ATTRIBUTES = Set.of(DOI_FIELD, PREFIX_FIELD, SUFFIX_FIELD);
     private String doi;
     private String prefix;
     private String suffix;
@@ -59,24 +61,28 @@ public class DraftDoiDto {
     }
 
     /**
-     * Create a DraftDoiDto from a Json string.
+     * Create a DraftDoiDto from a Json string. Only the attributes of the DOI are read; the rest of the response is
+     * skipped without being parsed into objects.
      *
      * @param json a json object as it is expected and retuned from POST /dois endpoint in DataCite.
      * @return a DraftDoiDto.
      */
     public static DraftDoiDto fromJson(String json) {
-        JsonNode tree = attempt(() -> dtoObjectMapper.readTree(json)).orElseThrow();
+        var attributes = DataCiteAttributes.read(json, ATTRIBUTES);
         DraftDoiDto draftDoiDto = new DraftDoiDto();
-        JsonNode attributes = tree.path(DATA_FIELD).path(ATTRIBUTES_FIELD);
-        draftDoiDto.prefix = attributes.get(PREFIX_FIELD).textValue();
-        draftDoiDto.suffix = attributes.get(SUFFIX_FIELD).textValue();
-        draftDoiDto.doi = attributes.get(DOI_FIELD).textValue();
+        draftDoiDto.prefix = attributes.get(PREFIX_FIELD);
+        draftDoiDto.suffix = attributes.get(SUFFIX_FIELD);
+        draftDoiDto.doi = attributes.get(DOI_FIELD);
         return draftDoiDto;
     }
 
+    /**
+     * Writes the request body of POST /dois, streaming it straight into the output.
+     *
+     * @return the DraftDoiDto as a Json string.
+     */
     public String toJson() {
-        ObjectNode rootNode = createJsonObjectWithNestedElements();
-        return attempt(() -> dtoObjectMapper.writeValueAsString(rootNode)).orElseThrow();
+        return attempt(this::writeJson).orElseThrow();
     }
 
     @JacocoGenerated
@@ -103,17 +109,20 @@ public class DraftDoiDto {
         return Doi.fromDoiIdentifier(this.getDoi());
     }
 
-    private ObjectNode createJsonObjectWithNestedElements() {
-        ObjectNode rootNode = dtoObjectMapper.createObjectNode();
-        ObjectNode data = dtoObjectMapper.createObjectNode();
-        ObjectNode attributes = dtoObjectMapper.createObjectNode();
-
-        rootNode.set(DATA_FIELD, data);
-        rootNode.put(TYPE_FIELD, TYPE_FIELD_VALUE);
-        data.set(ATTRIBUTES_FIELD, attributes);
-        attributes.put(DOI_FIELD, doi);
-        attributes.put(PREFIX_FIELD, prefix);
-        attributes.put(SUFFIX_FIELD, suffix);
-        return rootNode;
+    private String writeJson() throws IOException {
+        var json = new StringWriter();
+        try (var generator = dtoObjectMapper.createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart(DATA_FIELD);
+            generator.writeObjectFieldStart(ATTRIBUTES_FIELD);
+            generator.writeStringField(DOI_FIELD, doi);
+            generator.writeStringField(PREFIX_FIELD, prefix);
+            generator.writeStringField(SUFFIX_FIELD, suffix);
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeStringField(TYPE_FIELD, TYPE_FIELD_VALUE);
+            generator.writeEndObject();
+        }
+        return json.toString();
     }
 }
@@ -0,0 +1,345 @@
+package no.unit.nva.doi.datacite.clients;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.delete;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static no.unit.nva.doi.datacite.clients.TestDataFactory.CUSTOMER_PASSWORD;
+import static no.unit.nva.doi.datacite.clients.TestDataFactory.CUSTOMER_USERNAME;
+import static no.unit.nva.doi.datacite.clients.TestDataFactory.DOI_PREFIX;
+import static no.unit.nva.doi.datacite.clients.TestDataFactory.createValidCustomer;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.doi.datacite.clients.OperationTimeouts.Operation;
+import no.unit.nva.doi.datacite.clients.circuitbreaker.CircuitBreakerSettings;
+import no.unit.nva.doi.datacite.clients.circuitbreaker.CircuitState;
+import no.unit.nva.doi.datacite.clients.circuitbreaker.HostCircuitBreakers;
+import no.unit.nva.doi.datacite.clients.exception.CircuitOpenException;
+import no.unit.nva.doi.datacite.clients.exception.ClientException;
+import no.unit.nva.doi.datacite.clients.exception.DeadlineExceededException;
+import no.unit.nva.doi.datacite.clients.exception.DeleteDraftDoiException;
+import no.unit.nva.doi.datacite.clients.ratelimit.RateLimiter;
+import no.unit.nva.doi.datacite.clients.retry.JitteredBackoffRetryPolicy;
+import no.unit.nva.doi.datacite.clients.retry.RetryPolicy;
+import no.unit.nva.doi.datacite.restclient.models.DraftDoiDto;
+import no.unit.nva.doi.datacite.utils.FakeCustomerExtractor;
+import no.unit.nva.doi.models.Doi;
+import no.unit.nva.stubs.WiremockHttpClient;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@WireMockTest
+class DataCiteAsyncClientTest {
+
+    private static final String DOI_HOST = "example.doi.host.org";
+    private static final String DOIS_PATH = "/dois";
+    private static final int NUMBER_OF_REQUESTS = 10;
+    private static final String RETRY_SCENARIO = "retry";
+    private static final String RECOVERED = "recovered";
+    private static final String METADATA = "<resource/>";
+    private static final int SLOW_RESPONSE_MILLIS = 1000;
+    private static final Duration SHORT_TIME = Duration.ofMillis(100);
+    private static final String CLIENT_THREAD_NAME = "http-client";
+
+    private DataCiteAsyncClient client;
+    private FakeCustomerExtractor customerConfigExtractor;
+    private String baseUrl;
+
+    @BeforeEach
+    void setup(WireMockRuntimeInfo runtimeInfo) {
+        this.customerConfigExtractor = new FakeCustomerExtractor();
+        this.baseUrl = runtimeInfo.getHttpBaseUrl();
+        var retryPolicy = JitteredBackoffRetryPolicy.builder()
+                              .withBaseDelay(Duration.ofMillis(1))
+                              .withMaxDelay(Duration.ofMillis(5))
+                              .build();
+        this.client = createClient(SenderPolicies.defaults().withRetryPolicy(retryPolicy));
+    }
+
+    @Test
+    void shouldCreateSeveralDoisConcurrentlyWithoutBlockingTheCaller() {
+        var customerId = createValidCustomer(customerConfigExtractor);
+        stubFor(post(urlEqualTo(DOIS_PATH))
+                    .withBasicAuth(CUSTOMER_USERNAME, CUSTOMER_PASSWORD)
+                    .willReturn(aResponse()
+                                    .withStatus(HttpStatus.SC_CREATED)
+                                    .withBody(DraftDoiDto.create(DOI_PREFIX, UUID.randomUUID().toString()).toJson())));
+
+        var futures = IntStream.range(0, NUMBER_OF_REQUESTS)
+                          .mapToObj(index -> client.createDoi(customerId))
+                          .toList();
+        var dois = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                       .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList())
+                       .join();
+
+        assertThat(dois, hasSize(NUMBER_OF_REQUESTS));
+        assertThat(dois.stream().map(Doi::getPrefix).toList(), everyItem(equalTo(DOI_PREFIX)));
+        verify(NUMBER_OF_REQUESTS, postRequestedFor(urlEqualTo(DOIS_PATH)));
+    }
+
+    @Test
+    void shouldReportBulkReservationsOnExecutorOfHttpClient() {
+        var customerId = createValidCustomer(customerConfigExtractor);
+        stubFor(post(urlEqualTo(DOIS_PATH))
+                    .willReturn(aResponse()
+                                    .withStatus(HttpStatus.SC_CREATED)
+                                    .withBody(DraftDoiDto.create(DOI_PREFIX, UUID.randomUUID().toString()).toJson())));
+        var clientThreads = Executors.newCachedThreadPool(runnable -> new Thread(runnable, CLIENT_THREAD_NAME));
+        var httpClient = HttpClient.newBuilder().executor(clientThreads).build();
+        var reportingThreads = new ConcurrentLinkedQueue<String>();
+        try {
+            var clientWithOwnExecutor = createClient(httpClient, SenderPolicies.defaults());
+
+            clientWithOwnExecutor.createDois(customerId,
+                                             NUMBER_OF_REQUESTS,
+                                             reservation -> reportingThreads.add(Thread.currentThread().getName()))
+                .join();
+        } finally {
+            clientThreads.shutdownNow();
+        }
+
+        assertThat(reportingThreads, hasSize(NUMBER_OF_REQUESTS));
+        assertThat(reportingThreads, everyItem(equalTo(CLIENT_THREAD_NAME)));
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWithDeleteDraftDoiExceptionWhenDoiIsFindable() {
+        createValidCustomer(customerConfigExtractor);
+        var doi = Doi.fromPrefixAndSuffix(DOI_HOST, DOI_PREFIX, UUID.randomUUID().toString());
+        stubFor(delete(urlEqualTo("/doi/" + doi.toIdentifier()))
+                    .willReturn(aResponse().withStatus(HttpStatus.SC_METHOD_NOT_ALLOWED)));
+
+        var future = client.deleteDraftDoi(doi);
+
+        var exception = assertThrows(DeleteDraftDoiException.class, () -> ClientFutures.join(future));
+        assertThat(future.isCompletedExceptionally(), is(equalTo(true)));
+        assertThat(exception.getMessage(), containsString(doi.toIdentifier()));
+    }
+
+    @Test
+    void shouldRetryIdempotentRequestUntilDataCiteRecovers() throws ClientException {
+        createValidCustomer(customerConfigExtractor);
+        var doi = Doi.fromPrefixAndSuffix(DOI_HOST, DOI_PREFIX, UUID.randomUUID().toString());
+        var path = "/metadata/" + doi.toIdentifier();
+        stubFor(get(urlEqualTo(path)).inScenario(RETRY_SCENARIO)
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willReturn(aResponse().withStatus(HttpStatus.SC_SERVICE_UNAVAILABLE))
+                    .willSetStateTo(RECOVERED));
+        stubFor(get(urlEqualTo(path)).inScenario(RETRY_SCENARIO)
+                    .whenScenarioStateIs(RECOVERED)
+                    .willReturn(aResponse().withStatus(HttpStatus.SC_OK).withBody(METADATA)));
+
+        var metadata = ClientFutures.join(client.getMetadata(doi));
+
+        assertThat(metadata, is(equalTo(METADATA)));
+        verify(2, getRequestedFor(urlEqualTo(path)));
+    }
+
+    @Test
+    void shouldNotRetryPostRequestWhenDataCiteRespondsWithGatewayError() {
+        var customerId = createValidCustomer(customerConfigExtractor);
+        stubFor(post(urlEqualTo(DOIS_PATH)).willReturn(aResponse().withStatus(HttpStatus.SC_BAD_GATEWAY)));
+
+        assertThrows(ClientException.class, () -> ClientFutures.join(client.createDoi(customerId)));
+        verify(1, postRequestedFor(urlEqualTo(DOIS_PATH)));
+    }
+
+    @Test
+    void shouldRetryReservationOfDoiWithGivenSuffixWhenDataCiteRespondsWithGatewayError() throws ClientException {
+        var customerId = createValidCustomer(customerConfigExtractor);
+        var suffix = UUID.randomUUID().toString();
+        stubFor(post(urlEqualTo(DOIS_PATH)).inScenario(RETRY_SCENARIO)
+                    .whenScenarioStateIs(Scenario.STARTED)
+                    .willReturn(aResponse().withStatus(HttpStatus.SC_BAD_GATEWAY))
+                    .willSetStateTo(RECOVERED));
+        stubFor(post(urlEqualTo(DOIS_PATH)).inScenario(RETRY_SCENARIO)
+                    .whenScenarioStateIs(RECOVERED)
+                    .willReturn(aResponse()
+                                    .withStatus(HttpStatus.SC_CREATED)
+                                    .withBody(DraftDoiDto.create(DOI_PREFIX, suffix).toJson())));
+
+        var doi = ClientFutures.join(client.createDoi(customerId, suffix));
+
+        assertThat(doi.getPrefix(), is(equalTo(DOI_PREFIX)));
+        verify(2, postRequestedFor(urlEqualTo(DOIS_PATH)).withoutHeader("Idempotency-Key"));
+    }
+
+    @Test
+    void shouldNotSendRequestWhenRequestDeadlineHasPassed() {
+        createValidCustomer(customerConfigExtractor);
+        var doi = randomDoi();
+
+        try (var deadline = RequestDeadline.after(Duration.ZERO).bind()) {
+            var future = client.getMetadata(doi);
+            assertThrows(DeadlineExceededException.class, () -> ClientFutures.join(future));
+        }
+        verify(0, getRequestedFor(urlEqualTo(metadataPath(doi))));
+    }
+
+    @Test
+    void shouldNotScheduleRetryThatWouldStartAfterRequestDeadline() {
+        createValidCustomer(customerConfigExtractor);
+        var doi = randomDoi();
+        stubFor(get(urlEqualTo(metadataPath(doi)))
+                    .willReturn(aResponse().withStatus(HttpStatus.SC_SERVICE_UNAVAILABLE)));
+        var retryPolicy = JitteredBackoffRetryPolicy.builder()
+                              .withBaseDelay(Duration.ofMillis(SLOW_RESPONSE_MILLIS))
+                              .withMaxDelay(Duration.ofMillis(SLOW_RESPONSE_MILLIS))
+                              .build();
+        var clientWithSlowRetries = createClient(SenderPolicies.defaults().withRetryPolicy(retryPolicy));
+
+        try (var deadline = RequestDeadline.after(SHORT_TIME).bind()) {
+            var future = clientWithSlowRetries.getMetadata(doi);
+            var exception = assertThrows(ClientException.class, () -> ClientFutures.join(future));
+            assertThat(exception.getMessage(), containsString(String.valueOf(HttpStatus.SC_SERVICE_UNAVAILABLE)));
+        }
+        verify(1, getRequestedFor(urlEqualTo(metadataPath(doi))));
+    }
+
+    @Test
+    void shouldCapRequestTimeoutAtRequestDeadline() {
+        createValidCustomer(customerConfigExtractor);
+        var doi = randomDoi();
+        stubSlowMetadataResponse(doi);
+        var clientWithoutRetries = createClient(SenderPolicies.defaults().withRetryPolicy(RetryPolicy.noRetries()));
+
+        try (var deadline = RequestDeadline.after(SHORT_TIME).bind()) {
+            var future = clientWithoutRetries.getMetadata(doi);
+            var exception = assertThrows(ClientException.class, () -> ClientFutures.join(future));
+            assertThat(exception.getCause(), is(instanceOf(HttpTimeoutException.class)));
+        }
+    }
+
+    @Test
+    void shouldUseTimeoutConfiguredForOperation() {
+        createValidCustomer(customerConfigExtractor);
+        var doi = randomDoi();
+        stubSlowMetadataResponse(doi);
+        var timeouts = OperationTimeouts.defaults().withTimeout(Operation.GET_METADATA, SHORT_TIME);
+        var clientWithShortTimeout = createClient(SenderPolicies.defaults()
+                                                      .withRetryPolicy(RetryPolicy.noRetries())
+                                                      .withTimeouts(timeouts));
+
+        var exception = assertThrows(ClientException.class,
+                                     () -> ClientFutures.join(clientWithShortTimeout.getMetadata(doi)));
+        assertThat(exception.getCause(), is(instanceOf(HttpTimeoutException.class)));
+    }
+
+    @Test
+    void shouldFailFastWithoutCallingDataCiteWhileCircuitIsOpen() {
+        createValidCustomer(customerConfigExtractor);
+        var doi = randomDoi();
+        stubFor(get(urlEqualTo(metadataPath(doi)))
+                    .willReturn(aResponse().withStatus(HttpStatus.SC_SERVICE_UNAVAILABLE)));
+        var circuitBreakers = new HostCircuitBreakers(new CircuitBreakerSettings(2, Duration.ofMinutes(1), 1));
+        var clientWithCircuitBreaker = createClient(SenderPolicies.defaults()
+                                                        .withRetryPolicy(RetryPolicy.noRetries())
+                                                        .withCircuitBreakers(circuitBreakers));
+
+        assertThrows(ClientException.class, () -> ClientFutures.join(clientWithCircuitBreaker.getMetadata(doi)));
+        assertThrows(ClientException.class, () -> ClientFutures.join(clientWithCircuitBreaker.getMetadata(doi)));
+        assertThrows(CircuitOpenException.class,
+                     () -> ClientFutures.join(clientWithCircuitBreaker.getMetadata(doi)));
+        verify(2, getRequestedFor(urlEqualTo(metadataPath(doi))));
+    }
+
+    @Test
+    void shouldNotCountTimeoutShortenedByRequestDeadlineAsFailureOfHost() {
+        createValidCustomer(customerConfigExtractor);
+        var doi = randomDoi();
+        stubSlowMetadataResponse(doi);
+        var circuitBreakers = new HostCircuitBreakers(new CircuitBreakerSettings(1, Duration.ofMinutes(1), 1));
+        var clientWithCircuitBreaker = createClient(SenderPolicies.defaults()
+                                                        .withRetryPolicy(RetryPolicy.noRetries())
+                                                        .withCircuitBreakers(circuitBreakers));
+
+        try (var deadline = RequestDeadline.after(SHORT_TIME).bind()) {
+            var future = clientWithCircuitBreaker.getMetadata(doi);
+            var exception = assertThrows(ClientException.class, () -> ClientFutures.join(future));
+            assertThat(exception.getCause(), is(instanceOf(HttpTimeoutException.class)));
+        }
+
+        assertThat(circuitBreakers.state(URI.create(baseUrl)), is(equalTo(CircuitState.CLOSED)));
+    }
+
+    @Test
+    void shouldReleaseProbeOfOpenCircuitWhenClientFailsBeforeSendingRequest() {
+        createValidCustomer(customerConfigExtractor);
+        var doi = randomDoi();
+        var openDuration = Duration.ofMinutes(1);
+        var nanoClock = new AtomicLong();
+        var circuitBreakers = new HostCircuitBreakers(new CircuitBreakerSettings(1, openDuration, 1), nanoClock::get);
+        var httpClient = mock(HttpClient.class);
+        when(httpClient.sendAsync(any(), any())).thenThrow(new IllegalStateException("client is shut down"));
+        var clientThatCannotSend = createClient(httpClient, SenderPolicies.defaults()
+                                                                .withRetryPolicy(RetryPolicy.noRetries())
+                                                                .withCircuitBreakers(circuitBreakers));
+        var host = URI.create(baseUrl);
+
+        assertThrows(ClientException.class, () -> ClientFutures.join(clientThatCannotSend.getMetadata(doi)));
+        nanoClock.addAndGet(openDuration.toNanos());
+        assertThrows(ClientException.class, () -> ClientFutures.join(clientThatCannotSend.getMetadata(doi)));
+        nanoClock.addAndGet(openDuration.toNanos());
+
+        assertThat(circuitBreakers.state(host), is(equalTo(CircuitState.OPEN)));
+        assertThat(circuitBreakers.tryAcquirePermission(host), is(true));
+    }
+
+    private static Doi randomDoi() {
+        return Doi.fromPrefixAndSuffix(DOI_HOST, DOI_PREFIX, UUID.randomUUID().toString());
+    }
+
+    private static String metadataPath(Doi doi) {
+        return "/metadata/" + doi.toIdentifier();
+    }
+
+    private static void stubSlowMetadataResponse(Doi doi) {
+        stubFor(get(urlEqualTo(metadataPath(doi)))
+                    .willReturn(aResponse()
+                                    .withStatus(HttpStatus.SC_OK)
+                                    .withBody(METADATA)
+                                    .withFixedDelay(SLOW_RESPONSE_MILLIS)));
+    }
+
+    private DataCiteAsyncClient createClient(SenderPolicies policies) {
+        return createClient(WiremockHttpClient.create(), policies);
+    }
+
+    private DataCiteAsyncClient createClient(HttpClient httpClient, SenderPolicies policies) {
+        return new DataCiteAsyncClient(customerConfigExtractor,
+                                       httpClient,
+                                       baseUrl,
+                                       baseUrl,
+                                       DOI_HOST,
+                                       policies.withRateLimiter(RateLimiter.unlimited()));
+    }
+}
@@ -4,12 +4,14 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.delete;
 import static com.github.tomakehurst.wiremock.client.WireMock.deleteRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
 import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static no.unit.nva.doi.datacite.clients.DataCiteRestApiClient.CONTENT_TYPE;
 import static no.unit.nva.doi.datacite.clients.DataCiteRestApiClient.JSON_API_CONTENT_TYPE;
@@ -38,17 +40,29 @@ import com.github.tomakehurst.wiremock.client.BasicCredentials;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.time.Duration;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import no.unit.nva.datacite.commons.RequestDeadline;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.clients.exception.DeleteDraftDoiException;
+import no.unit.nva.doi.datacite.clients.retry.JitteredBackoffRetryPolicy;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfig;
 import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigException;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigExtractor;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfigNotFoundException;
 import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
 import no.unit.nva.doi.datacite.restclient.models.DraftDoiDto;
 import no.unit.nva.doi.datacite.restclient.models.State;
@@ -84,6 +98,25 @@ public class DataCiteClientv2Test {
     private static final String EXAMPLE_DOI_FROM_FILE = "10.23/456789";
     private static final char FORWARD_SLASH = '/';
     private static final String HTTP_RESPONSE_OK = "OK";
+    private static final String STATE_FIELDSET_PARAMETER = "fields[dois]";
+    private static final String STATE_ONLY_RESPONSE = """
+        {"data": {"id": "10.23/456789", "type": "dois", "attributes": {"state": "findable"}}}
+        """;
+    private static final String STATE_RESPONSE_FORMAT = """
+        {"data": {"id": "%s", "type": "dois", "attributes": {"state": "%s"}}}
+        """;
+    private static final String PAGE_NUMBER_PARAMETER = "page[number]";
+    private static final String DOI_STATES_PAGE_WITH_NEXT = """
+        {"data": [{"id": "%s", "type": "dois", "attributes": {"state": "draft"}, "relationships": {}}],
+         "meta": {"total": 2},
+         "links": {"self": "https://api.datacite.org/dois?page%%5Bnumber%%5D=1",
+                   "next": "https://api.datacite.org/dois?ids=10.1234%%2FABC-123,10.1234%%2Fdef-456,10.1234%%2Funknown\
+        &fields%%5Bdois%%5D=state&page%%5Bnumber%%5D=2&page%%5Bsize%%5D=100"}}
+        """;
+    private static final String DOI_STATES_LAST_PAGE = """
+        {"data": [{"id": "%s", "type": "dois", "attributes": {"state": "findable"}}],
+         "links": {"self": "https://api.datacite.org/dois?page%%5Bnumber%%5D=2"}}
+        """;
 
     private static final String metadataPathPrefix = FORWARD_SLASH + MdsClient.DATACITE_PATH_METADATA;
     private static final String doiPath = FORWARD_SLASH + MdsClient.DATACITE_PATH_DOI;
@@ -161,16 +194,16 @@ public class DataCiteClientv2Test {
     }
 
     @Test
-    void shouldThrowClientExceptionWhenHttpClientThrowsIoException(WireMockRuntimeInfo runtimeInfo)
-        throws IOException,
-               InterruptedException {
+    void shouldThrowClientExceptionWhenHttpClientThrowsIoException(WireMockRuntimeInfo runtimeInfo) {
         var httpClientMock = mock(HttpClient.class);
         var exceptionMessage = "Something horrible happened";
-        when(httpClientMock.send(any(), any())).thenThrow(new IOException(exceptionMessage));
-        client = new DataCiteClientV2(customerConfigExtractor, httpClientMock,
-                                      runtimeInfo.getHttpBaseUrl(),
-                                      runtimeInfo.getHttpBaseUrl(),
-                                      DOI_HOST);
+        when(httpClientMock.sendAsync(any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IOException(exceptionMessage)));
+        client = new DataCiteClientV2(new DataCiteAsyncClient(customerConfigExtractor, httpClientMock,
+                                                              runtimeInfo.getHttpBaseUrl(),
+                                                              runtimeInfo.getHttpBaseUrl(),
+                                                              DOI_HOST,
+                                                              policiesWithoutRetryDelays()));
         var customerId = createValidCustomer(customerConfigExtractor);
         var exception = assertThrows(ClientException.class, () -> client.createDoi(customerId));
         var expectedMessage = String.format("Request http://localhost:%d/dois POST failed.", runtimeInfo.getHttpPort());
@@ -207,6 +240,78 @@ public class DataCiteClientv2Test {
         assertThat(actual.getUri(), is(equalTo(expectedCreatedServerDoi.getUri())));
     }
 
+    @Test
+    void shouldReserveDoiWithSuffixDerivedFromPublicationIdentifier() throws ClientException {
+        var customerUri = createValidCustomer(customerConfigExtractor);
+        var publicationIdentifier = "0190B5D1E7A1-4E2F9C1B";
+        var suffix = publicationIdentifier.toLowerCase(Locale.ROOT);
+        var expectedIdentifier = DOI_PREFIX + FORWARD_SLASH + suffix;
+        stubSuccessfulResponse(DraftDoiDto.create(DOI_PREFIX, suffix));
+
+        var actual = client.createDoi(customerUri, publicationIdentifier);
+
+        assertThat(actual.toIdentifier(), is(equalTo(expectedIdentifier)));
+        verify(1, postRequestedFor(urlEqualTo(DOIS_PATH_PREFIX))
+                      .withRequestBody(WireMock.matchingJsonPath("$.data.attributes.suffix", WireMock.equalTo(suffix)))
+                      .withoutHeader("Idempotency-Key"));
+    }
+
+    @Test
+    void shouldResolveToExistingDraftWhenDoiDerivedFromPublicationIdentifierIsTaken() throws ClientException {
+        var customerUri = createValidCustomer(customerConfigExtractor);
+        var publicationIdentifier = UUID.randomUUID().toString();
+        var existingDoi = Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + publicationIdentifier);
+        stubDoiTaken();
+        stubDoiState(existingDoi, "draft");
+
+        var actual = client.createDoi(customerUri, publicationIdentifier);
+
+        assertThat(actual.toIdentifier(), is(equalTo(existingDoi.toIdentifier())));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenDoiDerivedFromPublicationIdentifierIsTakenByDoiThatIsNotDraft() {
+        var customerUri = createValidCustomer(customerConfigExtractor);
+        var publicationIdentifier = UUID.randomUUID().toString();
+        stubDoiTaken();
+        stubDoiState(Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + publicationIdentifier), "findable");
+
+        var exception = assertThrows(ClientException.class,
+                                     () -> client.createDoi(customerUri, publicationIdentifier));
+
+        assertThat(exception.getMessage(), containsString(String.valueOf(HttpStatus.SC_UNPROCESSABLE_ENTITY)));
+    }
+
+    @Test
+    void shouldReserveManyDoisReportingEveryReservationAsItCompletes() throws ClientException {
+        var customerUri = createValidCustomer(customerConfigExtractor);
+        stubSuccessfulResponse(DraftDoiDto.create(DOI_PREFIX, UUID.randomUUID().toString()));
+        var count = DataCiteRestApiClient.MAX_CONCURRENT_RESERVATIONS + 4;
+        var progress = new ConcurrentLinkedQueue<Integer>();
+
+        var actual = client.createDois(customerUri, count, reservation -> progress.add(reservation.completed()));
+
+        assertThat(actual.dois().size(), is(equalTo(count)));
+        assertThat(actual.failures(), is(equalTo(List.of())));
+        assertThat(progress.stream().sorted().toList(),
+                   is(equalTo(IntStream.rangeClosed(1, count).boxed().toList())));
+        verify(count, postRequestedFor(urlEqualTo(DOIS_PATH_PREFIX)));
+    }
+
+    @Test
+    void shouldReportFailedReservationsWithoutFailingTheBulkReservation() throws ClientException {
+        var customerUri = createValidCustomer(customerConfigExtractor);
+        stubHttpClientException(randomString());
+        var count = 3;
+        var failedReservations = new ConcurrentLinkedQueue<DoiReservation>();
+
+        var actual = client.createDois(customerUri, count, failedReservations::add);
+
+        assertThat(actual.dois(), is(equalTo(List.of())));
+        assertThat(actual.failures().size(), is(equalTo(count)));
+        assertThat(failedReservations.stream().noneMatch(DoiReservation::isSuccess), is(true));
+    }
+
     @Test
     void shouldReturnDoiWhenClientRespondsWithSuccess() throws ClientException {
         createValidCustomer(customerConfigExtractor);
@@ -220,6 +325,96 @@ public class DataCiteClientv2Test {
         assertThat(actual.getState(), is(equalTo(State.DRAFT)));
     }
 
+    @Test
+    void shouldRequestOnlyTheStateWhenGettingDoiState() throws ClientException {
+        createValidCustomer(customerConfigExtractor);
+        var requestedDoi = Doi.fromDoiIdentifier(EXAMPLE_DOI_FROM_FILE);
+        stubFor(get(urlPathEqualTo(createDoisIdentifierPath(requestedDoi)))
+                    .withQueryParam(STATE_FIELDSET_PARAMETER, WireMock.equalTo("state"))
+                    .withBasicAuth(CUSTOMER_USERNAME, CUSTOMER_PASSWORD)
+                    .willReturn(aResponse()
+                                    .withHeader(CONTENT_TYPE, APPLICATION_VND_API_JSON)
+                                    .withStatus(HttpStatus.SC_OK)
+                                    .withBody(STATE_ONLY_RESPONSE)));
+
+        var actual = client.getDoiState(requestedDoi);
+
+        assertThat(actual, is(equalTo(State.FINDABLE)));
+        verify(1, getRequestedFor(urlPathEqualTo(createDoisIdentifierPath(requestedDoi)))
+                      .withQueryParam(STATE_FIELDSET_PARAMETER, WireMock.equalTo("state")));
+    }
+
+    @Test
+    void shouldLookUpStatesOfManyDoisInOneQueryFollowingNextPageLinks() throws ClientException {
+        createValidCustomer(customerConfigExtractor);
+        var draftDoi = Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + "ABC-123");
+        var findableDoi = Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + "def-456");
+        var unknownDoi = Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + "unknown");
+        var ids = String.join(",", draftDoi.toIdentifier(), findableDoi.toIdentifier(), unknownDoi.toIdentifier());
+        stubDoiStatesPage(ids, WireMock.absent(), String.format(DOI_STATES_PAGE_WITH_NEXT, "10.1234/abc-123"));
+        stubDoiStatesPage(ids, WireMock.equalTo("2"), String.format(DOI_STATES_LAST_PAGE, "10.1234/def-456"));
+
+        var actual = client.getDoiStates(List.of(draftDoi, findableDoi, unknownDoi));
+
+        assertThat(actual, is(equalTo(Map.of(draftDoi, State.DRAFT, findableDoi, State.FINDABLE))));
+        verify(2, getRequestedFor(urlPathEqualTo(DOIS_PATH_PREFIX))
+                      .withQueryParam(STATE_FIELDSET_PARAMETER, WireMock.equalTo("state")));
+    }
+
+    @Test
+    void shouldRequestFurtherPagesOfStatesUnderDeadlineOfCaller() {
+        createValidCustomer(customerConfigExtractor);
+        var draftDoi = Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + "ABC-123");
+        var findableDoi = Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + "def-456");
+        var unknownDoi = Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + "unknown");
+        var ids = String.join(",", draftDoi.toIdentifier(), findableDoi.toIdentifier(), unknownDoi.toIdentifier());
+        stubDoiStatesPage(ids, WireMock.absent(), String.format(DOI_STATES_PAGE_WITH_NEXT, "10.1234/abc-123"));
+        stubFor(get(urlPathEqualTo(DOIS_PATH_PREFIX))
+                    .withQueryParam(PAGE_NUMBER_PARAMETER, WireMock.equalTo("2"))
+                    .willReturn(aResponse()
+                                    .withFixedDelay(1500)
+                                    .withHeader(CONTENT_TYPE, APPLICATION_VND_API_JSON)
+                                    .withStatus(HttpStatus.SC_OK)
+                                    .withBody(String.format(DOI_STATES_LAST_PAGE, "10.1234/def-456"))));
+
+        try (var deadline = RequestDeadline.after(Duration.ofMillis(750)).bind()) {
+            assertThrows(ClientException.class,
+                         () -> client.getDoiStates(List.of(draftDoi, findableDoi, unknownDoi)));
+        }
+    }
+
+    @Test
+    void shouldFailLookupOfStatesNamingDoisWhosePrefixHasNoCustomer(WireMockRuntimeInfo runtimeInfo)
+        throws ClientException {
+        createValidCustomer(customerConfigExtractor);
+        var knownDoi = Doi.fromDoiIdentifier(DOI_PREFIX + FORWARD_SLASH + "def-456");
+        var foreignDoi = Doi.fromDoiIdentifier("10.99998/foreign");
+        var extractor = mock(CustomerConfigExtractor.class);
+        when(extractor.getCustomerConfig(knownDoi)).thenReturn(customerConfigExtractor.getCustomerConfig(knownDoi));
+        when(extractor.getCustomerConfig(foreignDoi)).thenThrow(new CustomerConfigNotFoundException());
+        client = new DataCiteClientV2(extractor,
+                                      WiremockHttpClient.create(),
+                                      runtimeInfo.getHttpBaseUrl(),
+                                      runtimeInfo.getHttpBaseUrl(),
+                                      DOI_HOST);
+
+        var exception = assertThrows(CustomerConfigNotFoundException.class,
+                                     () -> client.getDoiStates(List.of(foreignDoi, knownDoi)));
+
+        assertThat(exception.getMessage(), containsString(foreignDoi.toIdentifier()));
+        verify(0, getRequestedFor(urlPathEqualTo(DOIS_PATH_PREFIX)));
+    }
+
+    @Test
+    void shouldNotSendAnyRequestWhenLookingUpStatesOfNoDois() throws ClientException {
+        createValidCustomer(customerConfigExtractor);
+
+        var actual = client.getDoiStates(List.of());
+
+        assertThat(actual, is(equalTo(Map.of())));
+        verify(0, getRequestedFor(urlPathEqualTo(DOIS_PATH_PREFIX)));
+    }
+
     @Test
     void shouldThrowExceptionWhenUpdatingDoiWithoutSendingDoi() {
         createValidCustomer(customerConfigExtractor);
@@ -468,6 +663,17 @@ public class DataCiteClientv2Test {
                                     .withBody(getDoiResponseJson)));
     }
 
+    private void stubDoiStatesPage(String ids, StringValuePattern pageNumber, String body) {
+        stubFor(get(urlPathEqualTo(DOIS_PATH_PREFIX))
+                    .withQueryParam("ids", WireMock.equalTo(ids))
+                    .withQueryParam(PAGE_NUMBER_PARAMETER, pageNumber)
+                    .withBasicAuth(CUSTOMER_USERNAME, CUSTOMER_PASSWORD)
+                    .willReturn(aResponse()
+                                    .withHeader(CONTENT_TYPE, APPLICATION_VND_API_JSON)
+                                    .withStatus(HttpStatus.SC_OK)
+                                    .withBody(body)));
+    }
+
     private String createDoisIdentifierPath(Doi requestedDoi) {
         return DOIS_PATH_PREFIX + FORWARD_SLASH + requestedDoi.toIdentifier();
     }
@@ -484,6 +690,25 @@ public class DataCiteClientv2Test {
                                     .withBody(draftDoiDto.toJson())));
     }
 
+    private void stubDoiTaken() {
+        stubFor(post(urlEqualTo(DOIS_PATH_PREFIX))
+                    .withBasicAuth(CUSTOMER_USERNAME, CUSTOMER_PASSWORD)
+                    .willReturn(aResponse()
+                                    .withStatus(HttpStatus.SC_UNPROCESSABLE_ENTITY)
+                                    .withBody("{\"errors\": [{\"source\": \"doi\", "
+                                              + "\"title\": \"This DOI has already been taken\"}]}")));
+    }
+
+    private void stubDoiState(Doi doi, String state) {
+        stubFor(get(urlPathEqualTo(createDoisIdentifierPath(doi)))
+                    .withQueryParam(STATE_FIELDSET_PARAMETER, WireMock.equalTo("state"))
+                    .withBasicAuth(CUSTOMER_USERNAME, CUSTOMER_PASSWORD)
+                    .willReturn(aResponse()
+                                    .withHeader(CONTENT_TYPE, APPLICATION_VND_API_JSON)
+                                    .withStatus(HttpStatus.SC_OK)
+                                    .withBody(String.format(STATE_RESPONSE_FORMAT, doi.toIdentifier(), state))));
+    }
+
     private void stubHttpClientException(String expectedBody) {
         stubFor(post(urlEqualTo(DOIS_PATH_PREFIX))
                     .withBasicAuth(CUSTOMER_USERNAME, CUSTOMER_PASSWORD)
@@ -492,4 +717,11 @@ public class DataCiteClientv2Test {
                                     .withBody(expectedBody)));
     }
 
+    private static SenderPolicies policiesWithoutRetryDelays() {
+        var retryPolicy = JitteredBackoffRetryPolicy.builder()
+                              .withBaseDelay(Duration.ZERO)
+                              .withMaxDelay(Duration.ZERO)
+                              .build();
+        return SenderPolicies.defaults().withRetryPolicy(retryPolicy);
+    }
 }
@@ -0,0 +1,66 @@
+package no.unit.nva.doi.datacite.clients;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import java.net.URI;
+import no.unit.nva.doi.models.Doi;
+import nva.commons.core.paths.UriWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class EndpointTemplateTest {
+
+    private static final String MDS_HOST = "https://mds.test.datacite.org";
+
+    @Test
+    void shouldResolveSameUriAsUriWrapperForRegularDoi() {
+        var doi = Doi.fromDoiIdentifier("10.1234/01890b0c-7b4f-4d8b-9a4e-3a2c1e1b2c3d");
+        var template = EndpointTemplate.of(MDS_HOST, MdsClient.DATACITE_PATH_METADATA);
+
+        var expected = UriWrapper.fromUri(MDS_HOST)
+                           .addChild(MdsClient.DATACITE_PATH_METADATA)
+                           .addChild(doi.toIdentifier())
+                           .getUri();
+
+        assertThat(template.resolve(doi), is(equalTo(expected)));
+    }
+
+    @Test
+    void shouldExposeEndpointWithoutIdentifier() {
+        var template = EndpointTemplate.of(MDS_HOST + "/", "dois");
+        assertThat(template.uri(), is(equalTo(URI.create(MDS_HOST + "/dois"))));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "10.1234/abc def, 10.1234/abc%20def",
+        "10.1234/a#b?c, 10.1234/a%23b%3Fc",
+        "10.1234/100%, 10.1234/100%25",
+        "10.1234/blåbær, 10.1234/bl%C3%A5b%C3%A6r",
+        "10.1234/(sici)1097;2-k:a@b, 10.1234/(sici)1097;2-k:a@b",
+        "10.1234/x<y>\\z, 10.1234/x%3Cy%3E%5Cz"
+    })
+    void shouldPercentEncodeCharactersThatAreNotAllowedInPath(String identifier, String expected) {
+        assertThat(EndpointTemplate.encodePath(identifier), is(equalTo(expected)));
+    }
+
+    @Test
+    void shouldEncodeCharactersOutsideBasicMultilingualPlaneAsOneCodePoint() {
+        assertThat(EndpointTemplate.encodePath("10.1234/😀"), is(equalTo("10.1234/%F0%9F%98%80")));
+    }
+
+    @Test
+    void shouldReturnSameStringWhenNothingNeedsEncoding() {
+        var identifier = "10.1234/nothing-to-encode";
+        assertThat(EndpointTemplate.encodePath(identifier), is(sameInstance(identifier)));
+    }
+
+    @Test
+    void shouldResolveEncodedIdentifierBelowEndpoint() {
+        var template = EndpointTemplate.of(MDS_HOST, MdsClient.DATACITE_PATH_DOI);
+        assertThat(template.resolve("10.1234/a b"), is(equalTo(URI.create(MDS_HOST + "/doi/10.1234/a%20b"))));
+    }
+}
@@ -14,7 +14,10 @@ import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import java.io.IOException;
 import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
+import no.unit.nva.doi.datacite.clients.retry.JitteredBackoffRetryPolicy;
 import no.unit.nva.doi.datacite.utils.FakeCustomerExtractor;
 import no.unit.nva.doi.models.Doi;
 import no.unit.nva.stubs.WiremockHttpClient;
@@ -37,18 +40,18 @@ public class MdsClientTest {
     }
 
     @Test
-    void shouldThrowClientExceptionWhenHttpClientThrowsIoExceptionOnDeleteDraftDoi(WireMockRuntimeInfo runtimeInfo)
-        throws IOException,
-               InterruptedException {
+    void shouldThrowClientExceptionWhenHttpClientThrowsIoExceptionOnDeleteDraftDoi(WireMockRuntimeInfo runtimeInfo) {
         var httpClientMock = mock(HttpClient.class);
         var exceptionMessage = "Something horrible happened";
-        when(httpClientMock.send(any(), any())).thenThrow(new IOException(exceptionMessage));
+        when(httpClientMock.sendAsync(any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IOException(exceptionMessage)));
         createValidCustomer(customerConfigExtractor);
         var doi = Doi.fromPrefixAndSuffix(DOI_HOST, DOI_PREFIX, DOI_SUFFIX);
 
-        client = new MdsClient(runtimeInfo.getHttpBaseUrl(), customerConfigExtractor, httpClientMock);
+        client = new MdsClient(runtimeInfo.getHttpBaseUrl(), customerConfigExtractor, httpClientMock,
+                               policiesWithoutRetryDelays());
 
-        var exception = assertThrows(ClientException.class, () -> client.deleteDraftDoi(doi));
+        var exception = assertThrows(ClientException.class, () -> ClientFutures.join(client.deleteDraftDoi(doi)));
         var expectedMessage = String.format("Request http://localhost:%d/doi/%s/%s DELETE failed.",
                                             runtimeInfo.getHttpPort(),
                                             DOI_PREFIX,
@@ -58,4 +61,11 @@ public class MdsClientTest {
         assertThat(exception.getCause().getMessage(), containsString(exceptionMessage));
     }
 
-}
\ No newline at end of file
+    private static SenderPolicies policiesWithoutRetryDelays() {
+        var retryPolicy = JitteredBackoffRetryPolicy.builder()
+                              .withBaseDelay(Duration.ZERO)
+                              .withMaxDelay(Duration.ZERO)
+                              .build();
+        return SenderPolicies.defaults().withRetryPolicy(retryPolicy);
+    }
+}
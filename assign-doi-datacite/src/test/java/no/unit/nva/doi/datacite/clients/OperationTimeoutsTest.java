@@ -0,0 +1,51 @@
+package no.unit.nva.doi.datacite.clients;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.Optional;
+import no.unit.nva.doi.datacite.clients.OperationTimeouts.Operation;
+import nva.commons.core.Environment;
+import org.junit.jupiter.api.Test;
+
+class OperationTimeoutsTest {
+
+    private static final String CONFIGURED_MILLIS = "5000";
+
+    @Test
+    void shouldUseDefaultTimeoutForOperationsWithoutConfiguration() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+
+        var timeouts = OperationTimeouts.fromEnvironment(environment);
+
+        for (var operation : Operation.values()) {
+            assertThat(timeouts.timeoutFor(operation), is(equalTo(OperationTimeouts.DEFAULT_TIMEOUT)));
+        }
+    }
+
+    @Test
+    void shouldReadTimeoutOfOperationFromEnvironment() {
+        var environment = mock(Environment.class);
+        when(environment.readEnvOpt(anyString())).thenReturn(Optional.empty());
+        when(environment.readEnvOpt("DATACITE_TIMEOUT_POST_METADATA_MS")).thenReturn(Optional.of(CONFIGURED_MILLIS));
+
+        var timeouts = OperationTimeouts.fromEnvironment(environment);
+
+        assertThat(timeouts.timeoutFor(Operation.POST_METADATA),
+                   is(equalTo(Duration.ofMillis(Long.parseLong(CONFIGURED_MILLIS)))));
+        assertThat(timeouts.timeoutFor(Operation.GET_DOI), is(equalTo(OperationTimeouts.DEFAULT_TIMEOUT)));
+    }
+
+    @Test
+    void shouldRejectTimeoutThatIsNotPositive() {
+        var timeouts = OperationTimeouts.defaults();
+
+        assertThrows(IllegalArgumentException.class, () -> timeouts.withTimeout(Operation.GET_DOI, Duration.ZERO));
+    }
+}
@@ -0,0 +1,127 @@
+package no.unit.nva.doi.datacite.clients.circuitbreaker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HostCircuitBreakersTest {
+
+    private static final URI MDS_ENDPOINT = URI.create("https://mds.example.org/metadata/10.1234/abc");
+    private static final URI REST_ENDPOINT = URI.create("https://api.example.org/dois/10.1234/abc");
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final CircuitBreakerSettings SETTINGS = new CircuitBreakerSettings(2, OPEN_DURATION, 1);
+
+    private AtomicLong nanoClock;
+    private HostCircuitBreakers circuitBreakers;
+
+    @BeforeEach
+    void setup() {
+        nanoClock = new AtomicLong();
+        circuitBreakers = new HostCircuitBreakers(SETTINGS, nanoClock::get);
+    }
+
+    @Test
+    void shouldOpenCircuitAfterConsecutiveFailuresAndFailFast() {
+        failTimes(MDS_ENDPOINT, 2);
+
+        assertThat(circuitBreakers.state(MDS_ENDPOINT), is(equalTo(CircuitState.OPEN)));
+        assertThat(circuitBreakers.tryAcquirePermission(MDS_ENDPOINT), is(false));
+    }
+
+    @Test
+    void shouldResetFailureCountOnSuccess() {
+        failTimes(MDS_ENDPOINT, 1);
+        circuitBreakers.tryAcquirePermission(MDS_ENDPOINT);
+        circuitBreakers.recordOutcome(MDS_ENDPOINT, false);
+        failTimes(MDS_ENDPOINT, 1);
+
+        assertThat(circuitBreakers.state(MDS_ENDPOINT), is(equalTo(CircuitState.CLOSED)));
+    }
+
+    @Test
+    void shouldKeepSeparateCircuitsPerHost() {
+        failTimes(MDS_ENDPOINT, 2);
+
+        assertThat(circuitBreakers.state(REST_ENDPOINT), is(equalTo(CircuitState.CLOSED)));
+        assertThat(circuitBreakers.tryAcquirePermission(REST_ENDPOINT), is(true));
+    }
+
+    @Test
+    void shouldLetSingleProbeThroughOnceOpenDurationHasPassed() {
+        failTimes(MDS_ENDPOINT, 2);
+
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+
+        assertThat(circuitBreakers.tryAcquirePermission(MDS_ENDPOINT), is(true));
+        assertThat(circuitBreakers.state(MDS_ENDPOINT), is(equalTo(CircuitState.HALF_OPEN)));
+        assertThat(circuitBreakers.tryAcquirePermission(MDS_ENDPOINT), is(false));
+    }
+
+    @Test
+    void shouldCloseCircuitWhenProbeSucceeds() {
+        failTimes(MDS_ENDPOINT, 2);
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreakers.tryAcquirePermission(MDS_ENDPOINT);
+
+        circuitBreakers.recordOutcome(MDS_ENDPOINT, false);
+
+        assertThat(circuitBreakers.state(MDS_ENDPOINT), is(equalTo(CircuitState.CLOSED)));
+        assertThat(circuitBreakers.tryAcquirePermission(MDS_ENDPOINT), is(true));
+    }
+
+    @Test
+    void shouldReopenCircuitWhenProbeFails() {
+        failTimes(MDS_ENDPOINT, 2);
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreakers.tryAcquirePermission(MDS_ENDPOINT);
+
+        circuitBreakers.recordOutcome(MDS_ENDPOINT, true);
+
+        assertThat(circuitBreakers.state(MDS_ENDPOINT), is(equalTo(CircuitState.OPEN)));
+        assertThat(circuitBreakers.tryAcquirePermission(MDS_ENDPOINT), is(false));
+    }
+
+    @Test
+    void shouldLetAnotherProbeThroughWhenProbeGivesItsPermitBack() {
+        failTimes(MDS_ENDPOINT, 2);
+        nanoClock.addAndGet(OPEN_DURATION.toNanos());
+        circuitBreakers.tryAcquirePermission(MDS_ENDPOINT);
+
+        circuitBreakers.releasePermission(MDS_ENDPOINT);
+
+        assertThat(circuitBreakers.state(MDS_ENDPOINT), is(equalTo(CircuitState.HALF_OPEN)));
+        assertThat(circuitBreakers.tryAcquirePermission(MDS_ENDPOINT), is(true));
+    }
+
+    @Test
+    void shouldNeitherCountNorResetFailuresWhenPermitIsGivenBack() {
+        failTimes(MDS_ENDPOINT, 1);
+        circuitBreakers.tryAcquirePermission(MDS_ENDPOINT);
+        circuitBreakers.releasePermission(MDS_ENDPOINT);
+        assertThat(circuitBreakers.state(MDS_ENDPOINT), is(equalTo(CircuitState.CLOSED)));
+
+        failTimes(MDS_ENDPOINT, 1);
+
+        assertThat(circuitBreakers.state(MDS_ENDPOINT), is(equalTo(CircuitState.OPEN)));
+    }
+
+    @Test
+    void shouldRejectSettingsThatNeverOpenOrNeverProbe() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreakerSettings(0, OPEN_DURATION, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreakerSettings(1, Duration.ZERO, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreakerSettings(1, OPEN_DURATION, 0));
+    }
+
+    private void failTimes(URI endpoint, int times) {
+        for (var attempt = 0; attempt < times; attempt++) {
+            circuitBreakers.tryAcquirePermission(endpoint);
+            circuitBreakers.recordOutcome(endpoint, true);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package no.unit.nva.doi.datacite.clients.ratelimit;
+
+import static no.unit.nva.testutils.RandomDataGenerator.randomString;
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.doi.datacite.customerconfigs.CustomerConfig;
+import nva.commons.logutils.LogUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CustomerTokenBucketRateLimiterTest {
+
+    private static final String USERNAME = "repository.account";
+    private static final String DOI_PREFIX = "10.1234";
+    private static final RateLimit TWO_PER_SECOND = new RateLimit(2, 2);
+    private static final Duration SHORTER_THAN_WAIT = Duration.ofMillis(100);
+    private static final String METRICS_LOG_MESSAGE = "Rate limiter metrics";
+
+    private AtomicLong nanoClock;
+    private CustomerTokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup() {
+        nanoClock = new AtomicLong();
+        rateLimiter = new CustomerTokenBucketRateLimiter(TWO_PER_SECOND, nanoClock::get);
+    }
+
+    @Test
+    void shouldLetBurstThroughImmediatelyAndDelayTheRest() {
+        var customer = customer(USERNAME, DOI_PREFIX);
+
+        var first = acquire(customer);
+        var second = acquire(customer);
+        var third = acquire(customer);
+
+        assertThat(first.isDone(), is(true));
+        assertThat(second.isDone(), is(true));
+        assertThat(third.isDone(), is(false));
+        third.join();
+        var metrics = rateLimiter.metrics().getFirst();
+        assertThat(metrics.acquisitions(), is(equalTo(3L)));
+        assertThat(metrics.delayedAcquisitions(), is(equalTo(1L)));
+        assertThat(metrics.maxWait(), is(equalTo(Duration.ofMillis(500))));
+        assertThat(metrics.totalWait(), is(equalTo(Duration.ofMillis(500))));
+    }
+
+    @Test
+    void shouldHandOutDelayedPermitOnExecutorOfCaller() {
+        var customer = customer(USERNAME, DOI_PREFIX);
+        var executions = new AtomicInteger();
+        Executor executor = command -> {
+            executions.incrementAndGet();
+            ForkJoinPool.commonPool().execute(command);
+        };
+        acquire(customer);
+        acquire(customer);
+
+        var permitted = rateLimiter.acquire(customer, RequestDeadline.unbounded(), executor).join();
+
+        assertThat(permitted, is(true));
+        assertThat(executions.get(), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldNotTakeTokenWhenWaitingForItWouldReachPastDeadline() {
+        var customer = customer(USERNAME, DOI_PREFIX);
+        acquire(customer);
+        acquire(customer);
+        var deadline = RequestDeadline.after(SHORTER_THAN_WAIT);
+
+        var rejected = rateLimiter.acquire(customer, deadline, ForkJoinPool.commonPool());
+        nanoClock.addAndGet(Duration.ofMillis(500).toNanos());
+
+        assertThat(rejected.getNow(true), is(false));
+        assertThat(acquire(customer).isDone(), is(true));
+        assertThat(rateLimiter.metrics().getFirst().acquisitions(), is(equalTo(3L)));
+    }
+
+    @Test
+    void shouldRefillTokensAsTimePasses() {
+        var customer = customer(USERNAME, DOI_PREFIX);
+        acquire(customer);
+        acquire(customer);
+
+        nanoClock.addAndGet(Duration.ofMillis(500).toNanos());
+
+        assertThat(acquire(customer).isDone(), is(true));
+        assertThat(rateLimiter.metrics().getFirst().delayedAcquisitions(), is(equalTo(0L)));
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerDataCiteAccount() {
+        var firstAccount = customer(USERNAME, DOI_PREFIX);
+        var secondAccount = customer("another.account", "10.5678");
+        acquire(firstAccount);
+        acquire(firstAccount);
+
+        assertThat(acquire(secondAccount).isDone(), is(true));
+        assertThat(rateLimiter.metrics().stream().map(RateLimiterMetrics::account).toList(),
+                   contains("another.account/10.5678", USERNAME + "/" + DOI_PREFIX));
+    }
+
+    @Test
+    void shouldLogMetricsOfAccountOncePerReportInterval() {
+        var appender = LogUtils.getTestingAppender(CustomerTokenBucketRateLimiter.class);
+        var customer = customer(USERNAME, DOI_PREFIX);
+        acquire(customer);
+        assertThat(appender.getMessages(), not(containsString(METRICS_LOG_MESSAGE)));
+
+        nanoClock.addAndGet(CustomerTokenBucketRateLimiter.REPORT_INTERVAL.toNanos());
+        acquire(customer);
+        acquire(customer);
+
+        assertThat(appender.getMessages(), containsString(METRICS_LOG_MESSAGE));
+        assertThat(appender.getMessages(), containsString("account=" + USERNAME + "/" + DOI_PREFIX
+                                                          + ", acquisitions=2"));
+        assertThat(appender.getMessages(), not(containsString("acquisitions=3")));
+    }
+
+    @Test
+    void shouldUseRateLimitConfiguredForCustomer() {
+        var customer = new CustomerConfig(randomUri(), randomString(), USERNAME, DOI_PREFIX, 1d, 1);
+
+        acquire(customer);
+
+        assertThat(acquire(customer).isDone(), is(false));
+    }
+
+    @Test
+    void shouldRejectRateLimitsThatDoNotAllowAnyRequests() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimit(Double.NaN, 1));
+    }
+
+    @Test
+    void shouldNeverDelayRequestsWhenUnlimited() {
+        var unlimited = RateLimiter.unlimited();
+        var customer = customer(USERNAME, DOI_PREFIX);
+        for (int i = 0; i < 100; i++) {
+            var permit = unlimited.acquire(customer, RequestDeadline.unbounded(), ForkJoinPool.commonPool());
+            assertThat(permit.getNow(false), is(true));
+        }
+    }
+
+    private CompletableFuture<Boolean> acquire(CustomerConfig customer) {
+        return rateLimiter.acquire(customer, RequestDeadline.unbounded(), ForkJoinPool.commonPool());
+    }
+
+    private static CustomerConfig customer(String username, String doiPrefix) {
+        return new CustomerConfig(randomUri(), randomString(), username, doiPrefix);
+    }
+}
@@ -0,0 +1,217 @@
+package no.unit.nva.doi.datacite.clients.retry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JitteredBackoffRetryPolicyTest {
+
+    private static final URI DATACITE_URI = URI.create("https://mds.test.datacite.org/doi/10.1234/5678");
+    private static final Duration BASE_DELAY = Duration.ofMillis(100);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_ELAPSED = Duration.ofSeconds(10);
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+    private static final String RETRY_AFTER = "Retry-After";
+
+    private JitteredBackoffRetryPolicy policy;
+
+    @BeforeEach
+    void setup() {
+        policy = JitteredBackoffRetryPolicy.builder()
+                     .withBaseDelay(BASE_DELAY)
+                     .withMaxDelay(MAX_DELAY)
+                     .withMaxElapsed(MAX_ELAPSED)
+                     .withMaxAttempts(3)
+                     .withClock(Clock.fixed(NOW, ZoneOffset.UTC))
+                     .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {HttpStatus.SC_TOO_MANY_REQUESTS, HttpStatus.SC_BAD_GATEWAY,
+        HttpStatus.SC_SERVICE_UNAVAILABLE, HttpStatus.SC_GATEWAY_TIMEOUT})
+    void shouldRetryIdempotentRequestOnTransientStatus(int statusCode) {
+        var delay = policy.nextDelay(firstAttempt(getRequest(), response(statusCode, Map.of())));
+        assertThat(delay.orElseThrow(), is(equalTo(BASE_DELAY)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_UNAUTHORIZED, HttpStatus.SC_NOT_FOUND,
+        HttpStatus.SC_INTERNAL_SERVER_ERROR})
+    void shouldNotRetryOnStatusThatIsNotTransient(int statusCode) {
+        var delay = policy.nextDelay(firstAttempt(getRequest(), response(statusCode, Map.of())));
+        assertThat(delay, is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldNotRetryPostRequestOnGatewayErrorSinceDataCiteMayHaveProcessedIt() {
+        var delay = policy.nextDelay(firstAttempt(postRequest(), response(HttpStatus.SC_BAD_GATEWAY, Map.of())));
+        assertThat(delay, is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldRetryPostRequestWhenThrottled() {
+        var delay = policy.nextDelay(firstAttempt(postRequest(), response(HttpStatus.SC_TOO_MANY_REQUESTS, Map.of())));
+        assertThat(delay.isPresent(), is(true));
+    }
+
+    @Test
+    void shouldRetryPostRequestOnlyWhenConnectionCouldNotBeMade() {
+        var connectFailure = policy.nextDelay(failedAttempt(postRequest(), new ConnectException("refused")));
+        var readFailure = policy.nextDelay(failedAttempt(postRequest(), new IOException("reset")));
+        assertThat(connectFailure.isPresent(), is(true));
+        assertThat(readFailure.isPresent(), is(false));
+    }
+
+    @Test
+    void shouldRetryRepeatablePostRequestLikeAnIdempotentRequest() {
+        var request = postRequest();
+        var readFailure = policy.nextDelay(repeatableAttempt(request, null, new IOException("reset")));
+        var gatewayError = policy.nextDelay(
+            repeatableAttempt(request, response(HttpStatus.SC_BAD_GATEWAY, Map.of()), null));
+        assertThat(readFailure.isPresent(), is(true));
+        assertThat(gatewayError.isPresent(), is(true));
+    }
+
+    @Test
+    void shouldRetryIdempotentRequestOnIoFailure() {
+        var delay = policy.nextDelay(failedAttempt(getRequest(), new IOException("reset")));
+        assertThat(delay.isPresent(), is(true));
+    }
+
+    @Test
+    void shouldNotRetryDeleteRequestWhoseResponseWasLostSinceTheResourceMayAlreadyBeGone() {
+        var timeout = policy.nextDelay(failedAttempt(deleteRequest(), new HttpTimeoutException("timed out")));
+        var readFailure = policy.nextDelay(failedAttempt(deleteRequest(), new IOException("reset")));
+        assertThat(timeout.isPresent(), is(false));
+        assertThat(readFailure.isPresent(), is(false));
+    }
+
+    @Test
+    void shouldRetryDeleteRequestWhenConnectionCouldNotBeMadeOrOnTransientStatus() {
+        var connectFailure = policy.nextDelay(failedAttempt(deleteRequest(), new ConnectException("refused")));
+        var gatewayError = policy.nextDelay(
+            firstAttempt(deleteRequest(), response(HttpStatus.SC_BAD_GATEWAY, Map.of())));
+        assertThat(connectFailure.isPresent(), is(true));
+        assertThat(gatewayError.isPresent(), is(true));
+    }
+
+    @Test
+    void shouldDrawJitteredDelayFromBaseDelayToThreeTimesPreviousDelayCappedByMaxDelay() {
+        var previousDelay = Duration.ofMillis(300);
+        var attempt = new Attempt(getRequest(), response(HttpStatus.SC_SERVICE_UNAVAILABLE, Map.of()), null, 2,
+                                  previousDelay, Duration.ZERO);
+        for (int i = 0; i < 100; i++) {
+            var delay = policy.nextDelay(attempt).orElseThrow();
+            assertThat(delay, is(allOf(greaterThanOrEqualTo(BASE_DELAY), lessThanOrEqualTo(MAX_DELAY))));
+        }
+    }
+
+    @Test
+    void shouldWaitAtLeastAsLongAsRetryAfterSeconds() {
+        var response = response(HttpStatus.SC_TOO_MANY_REQUESTS, Map.of(RETRY_AFTER, List.of("2")));
+        var delay = policy.nextDelay(firstAttempt(getRequest(), response));
+        assertThat(delay.orElseThrow(), is(equalTo(Duration.ofSeconds(2))));
+    }
+
+    @Test
+    void shouldWaitAtLeastUntilRetryAfterDate() {
+        var retryAt = DateTimeFormatter.RFC_1123_DATE_TIME.format(NOW.plusSeconds(3).atZone(ZoneOffset.UTC));
+        var response = response(HttpStatus.SC_SERVICE_UNAVAILABLE, Map.of(RETRY_AFTER, List.of(retryAt)));
+        var delay = policy.nextDelay(firstAttempt(getRequest(), response));
+        assertThat(delay.orElseThrow(), is(equalTo(Duration.ofSeconds(3))));
+    }
+
+    @Test
+    void shouldIgnoreRetryAfterDateInThePastAndUnparsableRetryAfter() {
+        var retryAt = DateTimeFormatter.RFC_1123_DATE_TIME.format(NOW.minusSeconds(3).atZone(ZoneOffset.UTC));
+        var pastDate = response(HttpStatus.SC_SERVICE_UNAVAILABLE, Map.of(RETRY_AFTER, List.of(retryAt)));
+        var garbage = response(HttpStatus.SC_SERVICE_UNAVAILABLE, Map.of(RETRY_AFTER, List.of("soon")));
+        assertThat(policy.nextDelay(firstAttempt(getRequest(), pastDate)).orElseThrow(), is(equalTo(BASE_DELAY)));
+        assertThat(policy.nextDelay(firstAttempt(getRequest(), garbage)).orElseThrow(), is(equalTo(BASE_DELAY)));
+    }
+
+    @Test
+    void shouldNotRetryWhenRetryAfterExceedsRemainingTimeBudget() {
+        var response = response(HttpStatus.SC_TOO_MANY_REQUESTS, Map.of(RETRY_AFTER, List.of("60")));
+        var delay = policy.nextDelay(firstAttempt(getRequest(), response));
+        assertThat(delay, is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldNotRetryWhenMaxAttemptsIsReached() {
+        var attempt = new Attempt(getRequest(), response(HttpStatus.SC_SERVICE_UNAVAILABLE, Map.of()), null, 3,
+                                  BASE_DELAY, Duration.ZERO);
+        assertThat(policy.nextDelay(attempt), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldNotRetryWhenDelayWouldExceedMaxElapsedTime() {
+        var attempt = new Attempt(getRequest(), response(HttpStatus.SC_SERVICE_UNAVAILABLE, Map.of()), null, 1,
+                                  Duration.ZERO, MAX_ELAPSED.minus(BASE_DELAY).plusMillis(1));
+        assertThat(policy.nextDelay(attempt), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldNeverRetryWhenUsingNoRetriesPolicy() {
+        var attempt = firstAttempt(getRequest(), response(HttpStatus.SC_SERVICE_UNAVAILABLE, Map.of()));
+        assertThat(RetryPolicy.noRetries().nextDelay(attempt), is(equalTo(Optional.empty())));
+    }
+
+    private static Attempt firstAttempt(HttpRequest request, HttpResponse<String> response) {
+        return new Attempt(request, response, null, 1, Duration.ZERO, Duration.ZERO);
+    }
+
+    private static Attempt failedAttempt(HttpRequest request, Throwable failure) {
+        return new Attempt(request, null, failure, 1, Duration.ZERO, Duration.ZERO);
+    }
+
+    private static Attempt repeatableAttempt(HttpRequest request, HttpResponse<String> response, Throwable failure) {
+        return new Attempt(request, response, failure, 1, Duration.ZERO, Duration.ZERO, true);
+    }
+
+    private static HttpRequest getRequest() {
+        return HttpRequest.newBuilder(DATACITE_URI).GET().build();
+    }
+
+    private static HttpRequest deleteRequest() {
+        return HttpRequest.newBuilder(DATACITE_URI).DELETE().build();
+    }
+
+    private static HttpRequest postRequest() {
+        return HttpRequest.newBuilder(DATACITE_URI).POST(BodyPublishers.noBody()).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int statusCode, Map<String, List<String>> headers) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        return response;
+    }
+}
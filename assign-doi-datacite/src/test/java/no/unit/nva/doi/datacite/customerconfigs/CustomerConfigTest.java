@@ -0,0 +1,43 @@
+package no.unit.nva.doi.datacite.customerconfigs;
+
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class CustomerConfigTest {
+
+    private static final String DOI_PREFIX = "10.1234";
+
+    @Test
+    void shouldEncodeCredentialsAsUtf8InBasicAuthenticationString() throws CustomerConfigException {
+        var username = "sikt.nva";
+        var password = "blåbærsyltetøy";
+        var customer = new CustomerConfig(randomUri(), password, username, DOI_PREFIX);
+
+        var expected = "Basic " + Base64.getEncoder()
+                                      .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+
+        assertThat(customer.extractBasicAuthenticationString(), is(equalTo(expected)));
+    }
+
+    @Test
+    void shouldReuseTheSameBasicAuthenticationStringForEveryRequest() throws CustomerConfigException {
+        var customer = new CustomerConfig(randomUri(), "password", "username", DOI_PREFIX);
+
+        assertThat(customer.extractBasicAuthenticationString(),
+                   is(sameInstance(customer.extractBasicAuthenticationString())));
+    }
+
+    @Test
+    void shouldThrowWhenExtractingBasicAuthenticationStringForIncompleteConfig() {
+        var customer = new CustomerConfig(randomUri(), "password", "username", null);
+
+        assertThrows(CustomerConfigException.class, customer::extractBasicAuthenticationString);
+    }
+}
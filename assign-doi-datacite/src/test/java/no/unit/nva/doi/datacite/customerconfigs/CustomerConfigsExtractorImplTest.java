@@ -6,8 +6,18 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import no.unit.nva.doi.datacite.clients.ratelimit.RateLimit;
 import no.unit.nva.doi.datacite.utils.FakeSecretsManagerCountingCalls;
+import no.unit.nva.doi.datacite.utils.MutableClock;
 import no.unit.nva.doi.models.Doi;
 import no.unit.nva.stubs.FakeSecretsManagerClient;
 import nva.commons.core.ioutils.IoUtils;
@@ -15,17 +25,30 @@ import nva.commons.core.paths.UriWrapper;
 import nva.commons.secrets.SecretsReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class CustomerConfigsExtractorImplTest {
 
     private static final String SECRET_NAME = "someSecretName";
     private static final String SECRET_KEY = "someSecretKey";
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+    private static final Duration MISS_RELOAD_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration NEGATIVE_TIME_TO_LIVE = Duration.ofMinutes(2);
+    private static final CustomerConfigCacheSettings CACHE_SETTINGS =
+        new CustomerConfigCacheSettings(TIME_TO_LIVE, MISS_RELOAD_INTERVAL, NEGATIVE_TIME_TO_LIVE, 2);
+    private static final URI EXISTING_CUSTOMER = URI.create("https://example.net/customer/id/1234");
+    private static final URI NEWLY_ONBOARDED_CUSTOMER = URI.create("https://example.net/customer/id/new");
     private SecretsReader secretsReader;
+    private MutableClock clock;
+    private ControlledExecutor reloadExecutor;
 
     private CustomerConfigExtractorImpl customerConfigExtractor;
 
     @BeforeEach
     void setup() {
+        this.clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        this.reloadExecutor = new ControlledExecutor();
         var fakeSecretsManagerClient = new FakeSecretsManagerClient();
         fakeSecretsManagerClient.putSecret(SECRET_NAME, SECRET_KEY, getValidSecretString());
         this.secretsReader = new SecretsReader(fakeSecretsManagerClient);
@@ -54,7 +77,7 @@ public class CustomerConfigsExtractorImplTest {
     @Test
     void shouldThrowExceptionWhenAttemptingToRetrieveCustomerThatDoesNotExist() {
         var customerUriNotInConfig = randomUri();
-        assertThrows(CustomerConfigException.class,
+        assertThrows(CustomerConfigNotFoundException.class,
                      () -> customerConfigExtractor.getCustomerConfig(customerUriNotInConfig));
     }
 
@@ -97,7 +120,225 @@ public class CustomerConfigsExtractorImplTest {
         assertThat(fakeSecretsManagerClientCountingCalls.getNumberOfTimesFetchSecretsHasBeenCalled(), is(equalTo(1)));
     }
 
+    @Test
+    void shouldReadRateLimitForCustomerWhenConfigured() throws CustomerConfigException {
+        var customerWithRateLimit = UriWrapper.fromUri("https://example.net/customer/id/42").getUri();
+        var customerWithoutRateLimit = UriWrapper.fromUri("https://example.net/customer/id/1234").getUri();
+
+        var rateLimit = customerConfigExtractor.getCustomerConfig(customerWithRateLimit).getRateLimit();
+
+        assertThat(rateLimit, is(equalTo(Optional.of(new RateLimit(2.5, 3)))));
+        assertThat(customerConfigExtractor.getCustomerConfig(customerWithoutRateLimit).getRateLimit(),
+                   is(equalTo(Optional.empty())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "\"dataCiteRequestsPerSecond\": 0",
+        "\"dataCiteRequestsPerSecond\": -1",
+        "\"dataCiteRequestsPerSecond\": 2, \"dataCiteBurstCapacity\": 0",
+        "\"dataCiteBurstCapacity\": 5"})
+    void shouldFailToLoadConfigsWhenRateSettingsOfCustomerAreMalformed(String rateSettings) {
+        var secret = String.format("""
+            [{"customerId": "%s", "customerDoiPrefix": "10.5072", "dataCiteMdsClientUsername": "user1.repository",
+              "dataCiteMdsClientPassword": "randompasswd1", %s}]
+            """, EXISTING_CUSTOMER, rateSettings);
+        var extractor = new CustomerConfigExtractorImpl(new SecretsReader(secretsManagerWith(secret)),
+                                                        SECRET_NAME,
+                                                        SECRET_KEY);
+
+        assertThrows(CustomerConfigException.class, () -> extractor.getCustomerConfig(EXISTING_CUSTOMER));
+    }
+
+    @Test
+    void shouldServeCachedConfigAndReloadInBackgroundWhenTimeToLiveHasPassed() throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+        reloadExecutor.deferTasks();
+
+        clock.advance(TIME_TO_LIVE);
+        var staleCustomer = extractor.getCustomerConfig(EXISTING_CUSTOMER);
+        extractor.getCustomerConfig(EXISTING_CUSTOMER);
+
+        assertThat(staleCustomer.getCustomerId(), is(equalTo(EXISTING_CUSTOMER)));
+        assertThat("Only one reload runs at a time", reloadExecutor.pendingTasks(), is(equalTo(1)));
+
+        secretsManager.putSecret(SECRET_NAME, SECRET_KEY, secretWithNewlyOnboardedCustomer());
+        reloadExecutor.runPendingTasks();
+
+        assertThat(extractor.getCustomerConfig(NEWLY_ONBOARDED_CUSTOMER).getCustomerId(),
+                   is(equalTo(NEWLY_ONBOARDED_CUSTOMER)));
+        assertThat(secretsManager.getNumberOfTimesFetchSecretsHasBeenCalled(), is(equalTo(2)));
+    }
+
+    @Test
+    void shouldReloadOnMissAndFindNewlyOnboardedCustomer() throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+
+        secretsManager.putSecret(SECRET_NAME, SECRET_KEY, secretWithNewlyOnboardedCustomer());
+        clock.advance(MISS_RELOAD_INTERVAL);
+
+        var customer = extractor.getCustomerConfig(NEWLY_ONBOARDED_CUSTOMER);
+        assertThat(customer.getCustomerId(), is(equalTo(NEWLY_ONBOARDED_CUSTOMER)));
+        assertThat(secretsManager.getNumberOfTimesFetchSecretsHasBeenCalled(), is(equalTo(2)));
+    }
+
+    @Test
+    void shouldReloadAtMostOncePerMissReloadIntervalWhenLookupsMiss() throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+        clock.advance(MISS_RELOAD_INTERVAL);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(CustomerConfigException.class, () -> extractor.getCustomerConfig(randomUri()));
+        }
+
+        assertThat(secretsManager.getNumberOfTimesFetchSecretsHasBeenCalled(), is(equalTo(2)));
+    }
+
+    @Test
+    void shouldNotWaitForReloadInProgressWhenLookupMisses() throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+        reloadExecutor.deferTasks();
+        clock.advance(TIME_TO_LIVE);
+        extractor.getCustomerConfig(EXISTING_CUSTOMER);
+
+        assertThrows(CustomerConfigException.class, () -> extractor.getCustomerConfig(NEWLY_ONBOARDED_CUSTOMER));
+        assertThat(reloadExecutor.pendingTasks(), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldKeepServingPreviousConfigsWhenBackgroundReloadFails() throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+
+        secretsManager.putSecret(SECRET_NAME, SECRET_KEY, randomString());
+        clock.advance(TIME_TO_LIVE);
+
+        var customer = extractor.getCustomerConfig(EXISTING_CUSTOMER);
+        assertThat(customer.getCustomerId(), is(equalTo(EXISTING_CUSTOMER)));
+    }
+
+    @Test
+    void shouldNotReloadForUnknownDoiPrefixUntilNegativeLookupHasExpired() throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+        var foreignDoi = Doi.fromDoiIdentifier("10.99998/foreign");
+
+        clock.advance(MISS_RELOAD_INTERVAL);
+        assertThrows(CustomerConfigNotFoundException.class, () -> extractor.getCustomerConfig(foreignDoi));
+        clock.advance(MISS_RELOAD_INTERVAL);
+        assertThrows(CustomerConfigNotFoundException.class, () -> extractor.getCustomerConfig(foreignDoi));
+        assertThat(secretsManager.getNumberOfTimesFetchSecretsHasBeenCalled(), is(equalTo(2)));
+
+        clock.advance(NEGATIVE_TIME_TO_LIVE);
+        assertThrows(CustomerConfigException.class, () -> extractor.getCustomerConfig(foreignDoi));
+        assertThat(secretsManager.getNumberOfTimesFetchSecretsHasBeenCalled(), is(equalTo(3)));
+    }
+
+    @Test
+    void shouldForgetLeastRecentlyUsedUnknownCustomerWhenNegativeLookupCacheIsFull()
+        throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+        var unknownCustomers = List.of(randomUri(), randomUri(), randomUri());
+        for (var unknownCustomer : unknownCustomers) {
+            clock.advance(MISS_RELOAD_INTERVAL);
+            assertThrows(CustomerConfigException.class, () -> extractor.getCustomerConfig(unknownCustomer));
+        }
+
+        clock.advance(MISS_RELOAD_INTERVAL);
+        assertThrows(CustomerConfigException.class, () -> extractor.getCustomerConfig(unknownCustomers.getFirst()));
+
+        assertThat(secretsManager.getNumberOfTimesFetchSecretsHasBeenCalled(), is(equalTo(5)));
+    }
+
+    @Test
+    void shouldFindCustomerThatWasMissingOnceANewSnapshotIsLoaded() throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+        clock.advance(MISS_RELOAD_INTERVAL);
+        assertThrows(CustomerConfigException.class, () -> extractor.getCustomerConfig(NEWLY_ONBOARDED_CUSTOMER));
+
+        secretsManager.putSecret(SECRET_NAME, SECRET_KEY, secretWithNewlyOnboardedCustomer());
+        clock.advance(TIME_TO_LIVE);
+        extractor.getCustomerConfig(EXISTING_CUSTOMER);
+
+        assertThat(extractor.getCustomerConfig(NEWLY_ONBOARDED_CUSTOMER).getCustomerId(),
+                   is(equalTo(NEWLY_ONBOARDED_CUSTOMER)));
+    }
+
+    @Test
+    void shouldNotRememberCustomerAsMissingWhenLookupDidNotReload() throws CustomerConfigException {
+        var secretsManager = secretsManagerWith(getValidSecretString());
+        var extractor = initializedExtractor(secretsManager);
+        secretsManager.putSecret(SECRET_NAME, SECRET_KEY, secretWithNewlyOnboardedCustomer());
+
+        assertThrows(CustomerConfigNotFoundException.class,
+                     () -> extractor.getCustomerConfig(NEWLY_ONBOARDED_CUSTOMER));
+        clock.advance(MISS_RELOAD_INTERVAL);
+
+        assertThat(extractor.getCustomerConfig(NEWLY_ONBOARDED_CUSTOMER).getCustomerId(),
+                   is(equalTo(NEWLY_ONBOARDED_CUSTOMER)));
+    }
+
+    private static FakeSecretsManagerCountingCalls secretsManagerWith(String secret) {
+        var secretsManager = new FakeSecretsManagerCountingCalls();
+        secretsManager.putSecret(SECRET_NAME, SECRET_KEY, secret);
+        return secretsManager;
+    }
+
+    private CustomerConfigExtractorImpl initializedExtractor(FakeSecretsManagerCountingCalls secretsManager)
+        throws CustomerConfigException {
+        var extractor = new CustomerConfigExtractorImpl(new SecretsReader(secretsManager),
+                                                        SECRET_NAME,
+                                                        SECRET_KEY,
+                                                        CACHE_SETTINGS,
+                                                        clock,
+                                                        reloadExecutor);
+        extractor.getCustomerConfig(EXISTING_CUSTOMER);
+        return extractor;
+    }
+
+    private String secretWithNewlyOnboardedCustomer() {
+        var existing = getValidSecretString().trim();
+        return existing.substring(0, existing.length() - 1)
+               + ", {\"customerId\": \"" + NEWLY_ONBOARDED_CUSTOMER + "\", \"customerDoiPrefix\": \"10.99999\","
+               + " \"dataCiteMdsClientUsername\": \"new.customer\", \"dataCiteMdsClientPassword\": \"secret\"}]";
+    }
+
     private String getValidSecretString() {
         return IoUtils.stringFromResources(Path.of("example-mds-config.json"));
     }
+
+    private static final class ControlledExecutor implements Executor {
+
+        private final Deque<Runnable> pending = new ArrayDeque<>();
+        private boolean deferred;
+
+        @Override
+        public void execute(Runnable task) {
+            if (deferred) {
+                pending.add(task);
+            } else {
+                task.run();
+            }
+        }
+
+        void deferTasks() {
+            deferred = true;
+        }
+
+        int pendingTasks() {
+            return pending.size();
+        }
+
+        void runPendingTasks() {
+            while (!pending.isEmpty()) {
+                pending.poll().run();
+            }
+        }
+    }
 }
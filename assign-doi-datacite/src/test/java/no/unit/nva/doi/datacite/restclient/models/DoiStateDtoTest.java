@@ -0,0 +1,35 @@
+package no.unit.nva.doi.datacite.restclient.models;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.nio.file.Path;
+import nva.commons.core.ioutils.IoUtils;
+import org.junit.jupiter.api.Test;
+
+class DoiStateDtoTest {
+
+    private static final String GET_DOI_RESPONSE = "getDoiResponse.json";
+
+    @Test
+    void shouldReadDoiAndStateFromDataCiteResponse() {
+        var doiState = DoiStateDto.fromJson(IoUtils.stringFromResources(Path.of(GET_DOI_RESPONSE)));
+
+        assertThat(doiState.getDoi(), is("10.23/456789"));
+        assertThat(doiState.getState(), is(State.DRAFT));
+    }
+
+    @Test
+    void shouldThrowWhenResponseHasNoState() {
+        var json = """
+            {"data": {"attributes": {"doi": "10.23/456789", "state": null}}}
+            """;
+
+        assertThrows(IllegalArgumentException.class, () -> DoiStateDto.fromJson(json));
+    }
+
+    @Test
+    void shouldThrowWhenResponseIsNotJson() {
+        assertThrows(RuntimeException.class, () -> DoiStateDto.fromJson("<html/>"));
+    }
+}
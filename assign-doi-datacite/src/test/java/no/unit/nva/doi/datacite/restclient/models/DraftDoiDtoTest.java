@@ -0,0 +1,65 @@
+package no.unit.nva.doi.datacite.restclient.models;
+
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import java.nio.file.Path;
+import nva.commons.core.ioutils.IoUtils;
+import org.junit.jupiter.api.Test;
+
+class DraftDoiDtoTest {
+
+    private static final String DRAFT_DOI_RESPONSE = "draftDoiMockResponse.json";
+    private static final String PREFIX = "10.5072";
+    private static final String SUFFIX = "te96-hb82";
+
+    @Test
+    void shouldReadDoiAttributesFromFullDataCiteResponse() {
+        var draftDoi = DraftDoiDto.fromJson(IoUtils.stringFromResources(Path.of(DRAFT_DOI_RESPONSE)));
+
+        assertThat(draftDoi.getPrefix(), is(PREFIX));
+        assertThat(draftDoi.getSuffix(), is(SUFFIX));
+        assertThat(draftDoi.getDoi(), is(PREFIX + "/" + SUFFIX));
+    }
+
+    @Test
+    void shouldReadAttributesWhenPrecededByNestedObjectsWithSameFieldNames() {
+        var json = """
+            {"meta": {"data": {"attributes": {"doi": "10.1/wrong"}}},
+             "data": {"relationships": {"attributes": {"doi": "10.1/wrong"}},
+                      "attributes": {"titles": [{"title": "A title"}], "prefix": "10.1", "suffix": "right",
+                                     "doi": "10.1/right"}}}
+            """;
+
+        var draftDoi = DraftDoiDto.fromJson(json);
+
+        assertThat(draftDoi.getDoi(), is("10.1/right"));
+        assertThat(draftDoi.getSuffix(), is("right"));
+    }
+
+    @Test
+    void shouldWriteSameDocumentAsObjectMapperTree() throws Exception {
+        var draftDoi = DraftDoiDto.create(PREFIX, SUFFIX);
+
+        var expected = dtoObjectMapper.createObjectNode();
+        var attributes = expected.putObject(DraftDoiDto.DATA_FIELD).putObject(DraftDoiDto.ATTRIBUTES_FIELD);
+        attributes.put(DraftDoiDto.DOI_FIELD, draftDoi.getDoi());
+        attributes.put(DraftDoiDto.PREFIX_FIELD, PREFIX);
+        attributes.put(DraftDoiDto.SUFFIX_FIELD, SUFFIX);
+        expected.put(DraftDoiDto.TYPE_FIELD, DraftDoiDto.TYPE_FIELD_VALUE);
+
+        assertThat(draftDoi.toJson(), is(dtoObjectMapper.writeValueAsString(expected)));
+    }
+
+    @Test
+    void shouldWriteNullForMissingAttributesWhenOnlyPrefixIsKnown() throws Exception {
+        var attributes = dtoObjectMapper.readTree(DraftDoiDto.fromPrefix(PREFIX).toJson())
+                             .path(DraftDoiDto.DATA_FIELD)
+                             .path(DraftDoiDto.ATTRIBUTES_FIELD);
+
+        assertThat(attributes.get(DraftDoiDto.PREFIX_FIELD).textValue(), is(PREFIX));
+        assertThat(attributes.get(DraftDoiDto.SUFFIX_FIELD).isNull(), is(true));
+        assertThat(attributes.get(DraftDoiDto.DOI_FIELD).textValue(), is(nullValue()));
+    }
+}
@@ -0,0 +1,50 @@
+package no.unit.nva.doi.datacite.benchmarks;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
+import no.unit.nva.doi.datacite.restclient.models.DraftDoiDto;
+import nva.commons.core.ioutils.IoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the JSON handling of the DataCite REST API: reading the response to creating a draft DOI, writing the
+ * request for one, and reading the state of a DOI. The fixtures are full DataCite responses, since the DTOs read two
+ * or three fields out of documents with dozens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataCiteJsonCodecBenchmark {
+
+    private static final String DOI_PREFIX = "10.16903";
+    private String draftDoiResponse;
+    private String doiResponse;
+
+    @Setup
+    public void setup() {
+        draftDoiResponse = IoUtils.stringFromResources(Path.of("draft-doi-response.json"));
+        doiResponse = IoUtils.stringFromResources(Path.of("doi-response.json"));
+    }
+
+    @Benchmark
+    public DraftDoiDto draftDoiFromJson() {
+        return DraftDoiDto.fromJson(draftDoiResponse);
+    }
+
+    @Benchmark
+    public String draftDoiRequestToJson() {
+        return DraftDoiDto.fromPrefix(DOI_PREFIX).toJson();
+    }
+
+    @Benchmark
+    public DoiStateDto doiStateFromJson() {
+        return DoiStateDto.fromJson(doiResponse);
+    }
+}
@@ -0,0 +1,61 @@
+package no.unit.nva.doi.datacite.benchmarks;
+
+import jakarta.xml.bind.JAXB;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import no.unit.nva.datacite.jaxb.RelatedIdentifierPatcher;
+import org.datacide.schema.kernel_4.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures reading and writing DataCite metadata XML, as done when tombstoning a DOI: a round trip through the
+ * {@link JAXB} convenience methods, against patching the document with the streaming {@link RelatedIdentifierPatcher}.
+ * Sample mode reports the latency percentiles (p0.99), and the gc profiler the allocation per operation
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataCiteXmlCodecBenchmark {
+
+    private static final URI ORIGINAL = URI.create("https://nva.sikt.no/registration/0185ca7cfd73-c8e82544");
+
+    @Param({"SMALL", "TYPICAL", "LARGE"})
+    private MetadataFixture fixture;
+    private String xml;
+    private Resource resource;
+    private RelatedIdentifierPatcher patcher;
+
+    @Setup
+    public void setup() {
+        xml = fixture.xml();
+        resource = JAXB.unmarshal(new StringReader(xml), Resource.class);
+        patcher = RelatedIdentifierPatcher.identicalTo(ORIGINAL);
+    }
+
+    @Benchmark
+    public Resource jaxbUnmarshal() {
+        return JAXB.unmarshal(new StringReader(xml), Resource.class);
+    }
+
+    @Benchmark
+    public String jaxbMarshal() {
+        var writer = new StringWriter();
+        JAXB.marshal(resource, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String streamingPatch() {
+        return patcher.patch(xml);
+    }
+}
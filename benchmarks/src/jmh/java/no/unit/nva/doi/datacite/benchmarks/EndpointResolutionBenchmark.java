@@ -0,0 +1,50 @@
+package no.unit.nva.doi.datacite.benchmarks;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import no.unit.nva.doi.datacite.clients.EndpointTemplate;
+import no.unit.nva.doi.models.Doi;
+import nva.commons.core.paths.UriWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares building a DataCite request URI with {@link UriWrapper} on every call against resolving it from a
+ * precomputed {@link EndpointTemplate}. Run with {@code ./gradlew :benchmarks:jmh}; the gc profiler reports the
+ * allocation rate per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EndpointResolutionBenchmark {
+
+    private static final String MDS_HOST = "https://mds.datacite.org";
+    private static final String METADATA_PATH = "metadata";
+    private Doi doi;
+    private EndpointTemplate metadataEndpoint;
+
+    @Setup
+    public void setup() {
+        doi = Doi.fromPrefixAndSuffix("doi.org", "10.82274", UUID.randomUUID().toString());
+        metadataEndpoint = EndpointTemplate.of(MDS_HOST, METADATA_PATH);
+    }
+
+    @Benchmark
+    public URI uriWrapperPerCall() {
+        return UriWrapper.fromUri(MDS_HOST)
+                   .addChild(METADATA_PATH)
+                   .addChild(doi.toIdentifier())
+                   .getUri();
+    }
+
+    @Benchmark
+    public URI precomputedEndpointTemplate() {
+        return metadataEndpoint.resolve(doi);
+    }
+}
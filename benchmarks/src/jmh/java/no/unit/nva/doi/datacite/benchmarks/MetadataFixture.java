@@ -0,0 +1,57 @@
+package no.unit.nva.doi.datacite.benchmarks;
+
+import java.nio.file.Path;
+import nva.commons.core.ioutils.IoUtils;
+
+/**
+ * DataCite metadata records of the sizes seen in production: a minimal record, a typical record using most of the
+ * schema, and the typical record with 5,000 creators, as found in large collaboration papers.
+ */
+public enum MetadataFixture {
+
+    SMALL("small-metadata.xml", 0),
+    TYPICAL("typical-metadata.xml", 0),
+    LARGE("typical-metadata.xml", 5_000);
+
+    private static final String CREATORS_START = "<creators>";
+    private static final String CREATORS_END = "</creators>";
+    private static final String CREATOR_FORMAT = """
+            <creator>
+              <creatorName nameType="Personal">Lastname%1$d, Given</creatorName>
+              <givenName>Given</givenName>
+              <familyName>Lastname%1$d</familyName>
+              <nameIdentifier nameIdentifierScheme="ORCID">0000-0001-%2$04d-%3$04d</nameIdentifier>
+              <affiliation>Example University</affiliation>
+            </creator>
+        """;
+    private static final String CREATORS_INDENT = "  ";
+    private static final int ORCID_GROUP = 10_000;
+
+    private final String resource;
+    private final int creators;
+
+    MetadataFixture(String resource, int creators) {
+        this.resource = resource;
+        this.creators = creators;
+    }
+
+    /**
+     * Reads the record.
+     *
+     * @return the DataCite XML of the record.
+     */
+    public String xml() {
+        var xml = IoUtils.stringFromResources(Path.of(resource));
+        return creators == 0 ? xml : withCreators(xml);
+    }
+
+    private String withCreators(String xml) {
+        var start = xml.indexOf(CREATORS_START) + CREATORS_START.length();
+        var end = xml.indexOf(CREATORS_END);
+        var generated = new StringBuilder(System.lineSeparator());
+        for (var index = 0; index < creators; index++) {
+            generated.append(String.format(CREATOR_FORMAT, index, index / ORCID_GROUP, index % ORCID_GROUP));
+        }
+        return xml.substring(0, start) + generated + CREATORS_INDENT + xml.substring(end);
+    }
+}
@@ -4,6 +4,7 @@ import static nva.commons.core.attempt.Try.attempt;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import java.net.HttpURLConnection;
+import no.unit.nva.datacite.commons.RequestDeadline;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.DataCiteClientV2;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
@@ -45,10 +46,10 @@ public class DeleteDraftDoiHandler extends ApiGatewayHandler<Void, Void> {
     }
 
     private void validateRequest(Doi doi) throws BadMethodException, BadGatewayException {
-        var doiState = attempt(() -> doiClient.getDoi(doi))
+        var doiState = attempt(() -> doiClient.getDoiState(doi))
                 .orElseThrow(failure ->
                         handleFailure(failure.getException(), BAD_DATACITE_RESPONSE_MESSAGE));
-        if (!State.DRAFT.equals(doiState.getState())) {
+        if (!State.DRAFT.equals(doiState)) {
             throw new BadMethodException(NOT_DRAFT_DOI_ERROR);
         }
     }
@@ -56,10 +57,12 @@ public class DeleteDraftDoiHandler extends ApiGatewayHandler<Void, Void> {
     @Override
     protected Void processInput(Void input, RequestInfo requestInfo, Context context)
         throws BadGatewayException, BadMethodException, BadRequestException {
-        var doi = getDoiFromPath(requestInfo);
-        validateRequest(doi);
-        return attempt(() -> deleteDraftDoi(doi))
-                   .orElseThrow(failure -> handleFailure(failure.getException(), ERROR_DELETING_DRAFT_DOI));
+        try (var deadline = RequestDeadline.fromRemainingTime(context.getRemainingTimeInMillis()).bind()) {
+            var doi = getDoiFromPath(requestInfo);
+            validateRequest(doi);
+            return attempt(() -> deleteDraftDoi(doi))
+                       .orElseThrow(failure -> handleFailure(failure.getException(), ERROR_DELETING_DRAFT_DOI));
+        }
     }
 
     @Override
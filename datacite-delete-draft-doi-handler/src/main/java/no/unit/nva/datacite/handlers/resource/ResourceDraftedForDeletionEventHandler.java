@@ -6,7 +6,6 @@ import java.net.URI;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.DataCiteClientV2;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
-import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
 import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
 import no.unit.nva.events.handlers.DestinationsEventBridgeEventHandler;
@@ -70,14 +69,14 @@ public class ResourceDraftedForDeletionEventHandler
     }
 
     private void verifyDoiIsInDraftState(Doi doi) {
-        DoiStateDto doiState;
+        State doiState;
         try {
-            doiState = doiClient.getDoi(doi);
+            doiState = doiClient.getDoiState(doi);
         } catch (ClientException e) {
             throw new RuntimeException(ERROR_GETTING_DOI_STATE, e);
         }
 
-        if (!State.DRAFT.equals(doiState.getState())) {
+        if (!State.DRAFT.equals(doiState)) {
             throw new RuntimeException(NOT_DRAFT_DOI_ERROR);
         }
     }
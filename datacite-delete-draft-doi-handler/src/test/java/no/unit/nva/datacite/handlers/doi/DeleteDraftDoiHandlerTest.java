@@ -26,7 +26,6 @@ import no.unit.nva.datacite.handlers.model.DeleteDraftDoiRequest;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.clients.exception.DeleteDraftDoiException;
-import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
 import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
 import no.unit.nva.testutils.HandlerRequestBuilder;
@@ -59,7 +58,7 @@ public class DeleteDraftDoiHandlerTest {
     public void shouldDeleteDraftDoiSuccessfully() throws ClientException, IOException {
         var doi = randomDoi();
         var request = createRequest(doi);
-        var handler = new DeleteDraftDoiHandler(doiClientReturningDoi(doi, State.DRAFT), environment);
+        var handler = new DeleteDraftDoiHandler(doiClientReturningDoi(State.DRAFT), environment);
         handler.handleRequest(request, output, context);
         var response = GatewayResponse.fromOutputStream(output, Problem.class);
         assertThat(response.getStatusCode(), is(equalTo(HttpURLConnection.HTTP_ACCEPTED)));
@@ -79,7 +78,7 @@ public class DeleteDraftDoiHandlerTest {
     public void shouldReturnBadGatewayWhenDoiIsNotADraft()
         throws IOException, ClientException {
         var doi = randomDoi();
-        var handler = new DeleteDraftDoiHandler(doiClientReturningDoi(doi, State.FINDABLE), environment);
+        var handler = new DeleteDraftDoiHandler(doiClientReturningDoi(State.FINDABLE), environment);
         handler.handleRequest(createRequest(doi), output, context);
         var response = GatewayResponse.fromOutputStream(output, Problem.class);
         assertThat(response.getStatusCode(), is(equalTo(HttpURLConnection.HTTP_BAD_METHOD)));
@@ -97,7 +96,7 @@ public class DeleteDraftDoiHandlerTest {
 
     private DoiClient doiClientThrowingException(URI doi) throws ClientException {
         DoiClient doiClient = mock(DoiClient.class);
-        when(doiClient.getDoi(any())).thenAnswer(invocation -> {
+        when(doiClient.getDoiState(any())).thenAnswer(invocation -> {
             throw new DeleteDraftDoiException(Doi.fromUri(doi), HttpURLConnection.HTTP_BAD_GATEWAY);
         });
         return doiClient;
@@ -105,17 +104,15 @@ public class DeleteDraftDoiHandlerTest {
 
     private DoiClient doiClientThrowingExceptionWhenDeleting(URI doi) throws ClientException {
         DoiClient doiClient = mock(DoiClient.class);
-        when(doiClient.getDoi(any()))
-            .thenAnswer(invocation -> new DoiStateDto(String.valueOf(doi), State.DRAFT));
+        when(doiClient.getDoiState(any())).thenReturn(State.DRAFT);
         doThrow(new DeleteDraftDoiException(Doi.fromUri(doi), HttpURLConnection.HTTP_BAD_GATEWAY))
             .when(doiClient).deleteDraftDoi(any());
         return doiClient;
     }
 
-    private DoiClient doiClientReturningDoi(URI doi, State state) throws ClientException {
+    private DoiClient doiClientReturningDoi(State state) throws ClientException {
         DoiClient doiClient = mock(DoiClient.class);
-        when(doiClient.getDoi(any()))
-            .thenAnswer(invocation -> new DoiStateDto(String.valueOf(doi), state));
+        when(doiClient.getDoiState(any())).thenReturn(state);
         return doiClient;
     }
 
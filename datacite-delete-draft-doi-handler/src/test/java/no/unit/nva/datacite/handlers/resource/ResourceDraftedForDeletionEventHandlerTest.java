@@ -14,7 +14,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
-import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
 import no.unit.nva.doi.datacite.restclient.models.State;
 import nva.commons.core.ioutils.IoUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -88,8 +87,7 @@ public class ResourceDraftedForDeletionEventHandlerTest {
 
     private DoiClient doiClientReturningError() throws ClientException {
         DoiClient doiClient = mock(DoiClient.class);
-        when(doiClient.getDoi(any()))
-            .thenAnswer(invocation -> doiState(State.DRAFT));
+        when(doiClient.getDoiState(any())).thenReturn(State.DRAFT);
         doThrow(new RuntimeException(ResourceDraftedForDeletionEventHandler.ERROR_DELETING_DRAFT_DOI))
             .when(doiClient).deleteDraftDoi(any());
         return doiClient;
@@ -97,12 +95,7 @@ public class ResourceDraftedForDeletionEventHandlerTest {
 
     private DoiClient doiClientReturningDoi(State state) throws ClientException {
         DoiClient doiClient = mock(DoiClient.class);
-        when(doiClient.getDoi(any()))
-            .thenAnswer(invocation -> doiState(state));
+        when(doiClient.getDoiState(any())).thenReturn(state);
         return doiClient;
     }
-
-    private DoiStateDto doiState(State state) {
-        return new DoiStateDto(ResourceDraftedForDeletionEventHandlerTest.DOI_IDENTIFIER, state);
-    }
 }
@@ -4,6 +4,7 @@ import static nva.commons.core.attempt.Try.attempt;
 import com.amazonaws.services.lambda.runtime.Context;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import no.unit.nva.datacite.commons.RequestDeadline;
 import no.unit.nva.datacite.model.DoiResponse;
 import no.unit.nva.datacite.model.ReserveDoiRequest;
 import no.unit.nva.doi.DoiClient;
@@ -46,9 +47,11 @@ public class ReserveDraftDoiHandler extends ApiGatewayHandler<ReserveDoiRequest,
     protected DoiResponse processInput(ReserveDoiRequest input, RequestInfo requestInfo, Context context)
         throws ApiGatewayException {
         var customerId = input.getCustomer();
-        return attempt(() -> doiClient.createDoi(customerId))
-                   .map(doi -> new DoiResponse(doi.getUri()))
-                   .orElseThrow(failure -> logAndThrow(customerId, failure.getException()));
+        try (var deadline = RequestDeadline.fromRemainingTime(context.getRemainingTimeInMillis()).bind()) {
+            return attempt(() -> doiClient.createDoi(customerId))
+                       .map(doi -> new DoiResponse(doi.getUri()))
+                       .orElseThrow(failure -> logAndThrow(customerId, failure.getException()));
+        }
     }
 
     private ApiGatewayException logAndThrow(URI customerId, Exception exception) {
@@ -0,0 +1,222 @@
+package no.unit.nva.datacite.jaxb;
+
+import jakarta.xml.bind.DataBindingException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.EndElement;
+import javax.xml.stream.events.StartDocument;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import org.datacide.schema.kernel_4.RelatedIdentifierType;
+import org.datacide.schema.kernel_4.RelationType;
+
+/**
+ * Adds a related identifier to DataCite XML in a single streaming pass, without binding the document to a
+ * {@link org.datacide.schema.kernel_4.Resource}. Everything except the added element is copied event by event, so
+ * unrelated content is left as it was, and memory use does not grow with the size of the record.
+ *
+ * <p>The identifier is appended to the existing {@code relatedIdentifiers} element, or to a new one at the end of the
+ * resource when there is none. Nothing is added when the document already holds a related identifier with the same
+ * value and type, ignoring whitespace around the value, as pretty-printed documents have. The added identifier gets
+ * the {@code resourceTypeGeneral} of the resource, when the resource type precedes it in the document.
+ */
+public final class RelatedIdentifierPatcher {
+
+    private static final String RESOURCE_TYPE = "resourceType";
+    private static final String RELATED_IDENTIFIERS = "relatedIdentifiers";
+    private static final String RELATED_IDENTIFIER = "relatedIdentifier";
+    private static final QName RESOURCE_TYPE_GENERAL = new QName("resourceTypeGeneral");
+    private static final QName RELATED_IDENTIFIER_TYPE = new QName("relatedIdentifierType");
+    private static final QName RELATION_TYPE = new QName("relationType");
+    private static final int RESOURCE_DEPTH = 1;
+    private static final int RESOURCE_CHILD_DEPTH = 2;
+    private static final int RELATED_IDENTIFIER_DEPTH = 3;
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    private static final XMLEventFactory EVENT_FACTORY = XMLEventFactory.newFactory();
+
+    private final String value;
+    private final String relatedIdentifierType;
+    private final String relationType;
+
+    private RelatedIdentifierPatcher(String value, RelatedIdentifierType relatedIdentifierType,
+                                     RelationType relationType) {
+        this.value = value;
+        this.relatedIdentifierType = relatedIdentifierType.value();
+        this.relationType = relationType.value();
+    }
+
+    /**
+     * A patcher marking the resource as identical to the resource at the given URL.
+     *
+     * @param original the landing page of the resource this one duplicates.
+     * @return the patcher.
+     */
+    public static RelatedIdentifierPatcher identicalTo(URI original) {
+        return new RelatedIdentifierPatcher(original.toString(),
+                                            RelatedIdentifierType.URL,
+                                            RelationType.IS_IDENTICAL_TO);
+    }
+
+    /**
+     * Adds the related identifier to the document.
+     *
+     * @param xml the DataCite XML document.
+     * @return the document with the related identifier.
+     * @throws DataBindingException if the document is not well-formed XML.
+     */
+    public String patch(String xml) {
+        var writer = new StringWriter();
+        patch(new StringReader(xml), writer);
+        return writer.toString();
+    }
+
+    /**
+     * Copies the document from the source to the target, adding the related identifier on the way.
+     *
+     * @param source the DataCite XML document.
+     * @param target where the patched document is written.
+     * @throws DataBindingException if the document is not well-formed XML.
+     */
+    public void patch(Reader source, Writer target) {
+        try {
+            var reader = INPUT_FACTORY.createXMLEventReader(source);
+            var writer = OUTPUT_FACTORY.createXMLEventWriter(target);
+            try {
+                new Pass(writer).copy(reader);
+                writer.flush();
+            } finally {
+                reader.close();
+                writer.close();
+            }
+        } catch (XMLStreamException exception) {
+            throw new DataBindingException(exception);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        var factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        return factory;
+    }
+
+    private static String attributeValue(StartElement element, QName name) {
+        var attribute = element.getAttributeByName(name);
+        return attribute == null ? null : attribute.getValue();
+    }
+
+    /**
+     * The state of patching one document.
+     */
+    private final class Pass {
+
+        private final XMLEventWriter writer;
+        private int depth;
+        private String resourceTypeGeneral;
+        private boolean insideRelatedIdentifiers;
+        private boolean relatedIdentifiersPresent;
+        private boolean identifierPresent;
+        private String currentType;
+        private StringBuilder currentValue;
+
+        private Pass(XMLEventWriter writer) {
+            this.writer = writer;
+        }
+
+        private void copy(XMLEventReader reader) throws XMLStreamException {
+            while (reader.hasNext()) {
+                var event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                    inspect(event.asStartElement());
+                } else if (event.isCharacters() && currentValue != null) {
+                    currentValue.append(event.asCharacters().getData());
+                } else if (event.isEndElement()) {
+                    beforeEnd(event.asEndElement());
+                    depth--;
+                }
+                writer.add(event.isStartDocument() ? withDeclaredEncoding((StartDocument) event) : event);
+            }
+        }
+
+        private XMLEvent withDeclaredEncoding(StartDocument declaration) {
+            if (!declaration.encodingSet()) {
+                return declaration;
+            }
+            var encoding = declaration.getCharacterEncodingScheme();
+            return declaration.standaloneSet()
+                       ? EVENT_FACTORY.createStartDocument(encoding,
+                                                           declaration.getVersion(),
+                                                           declaration.isStandalone())
+                       : EVENT_FACTORY.createStartDocument(encoding, declaration.getVersion());
+        }
+
+        private void inspect(StartElement element) {
+            var name = element.getName().getLocalPart();
+            if (depth == RESOURCE_CHILD_DEPTH && RESOURCE_TYPE.equals(name)) {
+                resourceTypeGeneral = attributeValue(element, RESOURCE_TYPE_GENERAL);
+            } else if (depth == RESOURCE_CHILD_DEPTH && RELATED_IDENTIFIERS.equals(name)) {
+                insideRelatedIdentifiers = true;
+                relatedIdentifiersPresent = true;
+            } else if (depth == RELATED_IDENTIFIER_DEPTH && insideRelatedIdentifiers
+                       && RELATED_IDENTIFIER.equals(name)) {
+                currentType = attributeValue(element, RELATED_IDENTIFIER_TYPE);
+                currentValue = new StringBuilder();
+            }
+        }
+
+        private void beforeEnd(EndElement element) throws XMLStreamException {
+            if (depth == RELATED_IDENTIFIER_DEPTH && currentValue != null) {
+                identifierPresent |= value.equals(currentValue.toString().strip())
+                                     && relatedIdentifierType.equals(currentType);
+                currentValue = null;
+            } else if (depth == RESOURCE_CHILD_DEPTH && insideRelatedIdentifiers) {
+                insideRelatedIdentifiers = false;
+                writeIdentifierUnlessPresent(element.getName());
+            } else if (depth == RESOURCE_DEPTH && !relatedIdentifiersPresent) {
+                var name = element.getName();
+                var wrapper = new QName(name.getNamespaceURI(), RELATED_IDENTIFIERS, name.getPrefix());
+                writer.add(EVENT_FACTORY.createStartElement(wrapper, null, null));
+                writeIdentifierUnlessPresent(wrapper);
+                writer.add(EVENT_FACTORY.createEndElement(wrapper, null));
+            }
+        }
+
+        private void writeIdentifierUnlessPresent(QName parent) throws XMLStreamException {
+            if (identifierPresent) {
+                return;
+            }
+            var element = new QName(parent.getNamespaceURI(), RELATED_IDENTIFIER, parent.getPrefix());
+            writer.add(EVENT_FACTORY.createStartElement(element, attributes(), null));
+            writer.add(EVENT_FACTORY.createCharacters(value));
+            writer.add(EVENT_FACTORY.createEndElement(element, null));
+            identifierPresent = true;
+        }
+
+        private Iterator<Attribute> attributes() {
+            var attributes = new ArrayList<Attribute>();
+            if (resourceTypeGeneral != null) {
+                attributes.add(EVENT_FACTORY.createAttribute(RESOURCE_TYPE_GENERAL, resourceTypeGeneral));
+            }
+            attributes.add(EVENT_FACTORY.createAttribute(RELATED_IDENTIFIER_TYPE, relatedIdentifierType));
+            attributes.add(EVENT_FACTORY.createAttribute(RELATION_TYPE, relationType));
+            return attributes.iterator();
+        }
+    }
+}
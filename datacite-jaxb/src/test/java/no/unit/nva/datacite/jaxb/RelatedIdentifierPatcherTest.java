@@ -0,0 +1,120 @@
+package no.unit.nva.datacite.jaxb;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import jakarta.xml.bind.DataBindingException;
+import java.net.URI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RelatedIdentifierPatcherTest {
+
+    private static final URI ORIGINAL = URI.create("https://nva.sikt.no/registration/0185ca7cfd73-c8e82544");
+    private static final String OTHER_IDENTIFIER = "10.1234/other";
+    private static final String RESOURCE_START = "<resource xmlns=\"http://datacite.org/schema/kernel-4\">"
+                                                 + "<resourceType resourceTypeGeneral=\"Text\">Article</resourceType>";
+    private static final String RESOURCE_END = "</resource>";
+    private static final String ADDED_IDENTIFIER = "<relatedIdentifier resourceTypeGeneral=\"Text\" "
+                                                   + "relatedIdentifierType=\"URL\" relationType=\"IsIdenticalTo\">"
+                                                   + ORIGINAL + "</relatedIdentifier>";
+
+    private RelatedIdentifierPatcher patcher;
+
+    @BeforeEach
+    void setUp() {
+        patcher = RelatedIdentifierPatcher.identicalTo(ORIGINAL);
+    }
+
+    @Test
+    void shouldNotAddIdentifierThatIsAlreadyPresent() {
+        var xml = RESOURCE_START
+                  + "<relatedIdentifiers>" + existingIdentifier(ORIGINAL.toString()) + "</relatedIdentifiers>"
+                  + RESOURCE_END;
+
+        var patched = patcher.patch(xml);
+
+        assertThat(occurrences(patched, ORIGINAL.toString()), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldNotAddIdentifierThatIsPresentWithWhitespaceAroundItsValue() {
+        var xml = RESOURCE_START
+                  + "<relatedIdentifiers>\n    "
+                  + existingIdentifier("\n      " + ORIGINAL + "\n    ")
+                  + "\n  </relatedIdentifiers>"
+                  + RESOURCE_END;
+
+        var patched = patcher.patch(xml);
+
+        assertThat(occurrences(patched, ORIGINAL.toString()), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldAppendIdentifierToExistingRelatedIdentifiersAndKeepTheOthers() {
+        var xml = RESOURCE_START
+                  + "<relatedIdentifiers>"
+                  + "<relatedIdentifier relatedIdentifierType=\"DOI\" relationType=\"IsCitedBy\">"
+                  + OTHER_IDENTIFIER + "</relatedIdentifier>"
+                  + "</relatedIdentifiers>"
+                  + RESOURCE_END;
+
+        var patched = patcher.patch(xml);
+
+        assertThat(patched, containsString(OTHER_IDENTIFIER + "</relatedIdentifier>" + ADDED_IDENTIFIER
+                                           + "</relatedIdentifiers>"));
+        assertThat(occurrences(patched, "<relatedIdentifiers>"), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldAddRelatedIdentifiersAtEndOfResourceWhenThereAreNone() {
+        var patched = patcher.patch(RESOURCE_START + RESOURCE_END);
+
+        assertThat(patched, containsString("<relatedIdentifiers>" + ADDED_IDENTIFIER + "</relatedIdentifiers>"
+                                           + RESOURCE_END));
+    }
+
+    @Test
+    void shouldUseNamespacePrefixOfDocumentForAddedElements() {
+        var xml = "<dc:resource xmlns:dc=\"http://datacite.org/schema/kernel-4\">"
+                  + "<dc:resourceType resourceTypeGeneral=\"Dataset\">Data</dc:resourceType>"
+                  + "</dc:resource>";
+
+        var patched = patcher.patch(xml);
+
+        assertThat(patched, containsString("<dc:relatedIdentifiers><dc:relatedIdentifier "
+                                           + "resourceTypeGeneral=\"Dataset\""));
+        assertThat(patched, containsString("</dc:relatedIdentifier></dc:relatedIdentifiers></dc:resource>"));
+    }
+
+    @Test
+    void shouldRecognizePresentIdentifierUnderNamespacePrefix() {
+        var xml = "<dc:resource xmlns:dc=\"http://datacite.org/schema/kernel-4\"><dc:relatedIdentifiers>"
+                  + "<dc:relatedIdentifier relatedIdentifierType=\"URL\" relationType=\"IsIdenticalTo\">"
+                  + ORIGINAL + "</dc:relatedIdentifier></dc:relatedIdentifiers></dc:resource>";
+
+        var patched = patcher.patch(xml);
+
+        assertThat(occurrences(patched, ORIGINAL.toString()), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldThrowDataBindingExceptionWhenDocumentIsNotWellFormed() {
+        assertThrows(DataBindingException.class, () -> patcher.patch(RESOURCE_START));
+    }
+
+    private static String existingIdentifier(String value) {
+        return "<relatedIdentifier relatedIdentifierType=\"URL\" relationType=\"IsIdenticalTo\">"
+               + value + "</relatedIdentifier>";
+    }
+
+    private static int occurrences(String text, String part) {
+        var count = 0;
+        for (var index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + part.length())) {
+            count++;
+        }
+        return count;
+    }
+}
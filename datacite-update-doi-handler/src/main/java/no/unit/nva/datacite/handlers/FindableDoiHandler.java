@@ -5,6 +5,10 @@ import static nva.commons.core.attempt.Try.attempt;
 import com.amazonaws.services.lambda.runtime.Context;
 import java.net.HttpURLConnection;
 import no.unit.nva.datacite.commons.DataCiteMetadataResolver;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.datacite.handlers.fingerprint.FindableDoiUpdater;
+import no.unit.nva.datacite.handlers.fingerprint.FingerprintStore;
+import no.unit.nva.datacite.handlers.fingerprint.InMemoryFingerprintStore;
 import no.unit.nva.datacite.handlers.model.DoiResponse;
 import no.unit.nva.datacite.handlers.model.UpdateDoiRequest;
 import no.unit.nva.doi.DoiClient;
@@ -21,6 +25,7 @@ public class FindableDoiHandler extends ApiGatewayHandler<UpdateDoiRequest, DoiR
 
     private final DoiClient doiClient;
     private final DataCiteMetadataResolver dataCiteMetadataResolver;
+    private final FindableDoiUpdater findableDoiUpdater;
 
     @JacocoGenerated
     public FindableDoiHandler() {
@@ -29,9 +34,15 @@ public class FindableDoiHandler extends ApiGatewayHandler<UpdateDoiRequest, DoiR
 
     public FindableDoiHandler(DoiClient doiClient, DataCiteMetadataResolver dataCiteMetadataResolver,
                               Environment environment) {
+        this(doiClient, dataCiteMetadataResolver, environment, new InMemoryFingerprintStore());
+    }
+
+    public FindableDoiHandler(DoiClient doiClient, DataCiteMetadataResolver dataCiteMetadataResolver,
+                              Environment environment, FingerprintStore fingerprintStore) {
         super(UpdateDoiRequest.class, environment);
         this.doiClient = doiClient;
         this.dataCiteMetadataResolver = dataCiteMetadataResolver;
+        this.findableDoiUpdater = new FindableDoiUpdater(doiClient, fingerprintStore);
     }
 
     @Override
@@ -42,9 +53,11 @@ public class FindableDoiHandler extends ApiGatewayHandler<UpdateDoiRequest, DoiR
 
     @Override
     protected DoiResponse processInput(UpdateDoiRequest input, RequestInfo requestInfo, Context context) {
-        return attempt(() -> getDoi(input))
-                   .map(doi -> makeDoiFindable(input, doi))
-                   .orElseThrow();
+        try (var deadline = RequestDeadline.fromRemainingTime(context.getRemainingTimeInMillis()).bind()) {
+            return attempt(() -> getDoi(input))
+                       .map(doi -> makeDoiFindable(input, doi))
+                       .orElseThrow();
+        }
     }
 
     @Override
@@ -64,8 +77,7 @@ public class FindableDoiHandler extends ApiGatewayHandler<UpdateDoiRequest, DoiR
 
     private DoiResponse makeDoiFindable(UpdateDoiRequest input, Doi doi) throws ClientException {
         var dataCiteXmlMetadata = dataCiteMetadataResolver.getDataCiteMetadataXml(input.getPublicationId());
-        doiClient.updateMetadata(doi, dataCiteXmlMetadata);
-        doiClient.setLandingPage(doi, input.getPublicationId());
+        findableDoiUpdater.makeFindable(doi, dataCiteXmlMetadata, input.getPublicationId());
         return new DoiResponse(doi.getUri());
     }
 }
@@ -5,32 +5,38 @@ import static nva.commons.core.attempt.Try.attempt;
 import static org.zalando.problem.Status.GONE;
 import static org.zalando.problem.Status.MOVED_PERMANENTLY;
 import com.amazonaws.services.lambda.runtime.Context;
-import jakarta.xml.bind.JAXB;
-import java.io.StringReader;
-import java.io.StringWriter;
-import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import no.unit.nva.datacite.commons.DataCiteMetadataResolver;
 import no.unit.nva.datacite.commons.DoiUpdateRequestEvent;
 import no.unit.nva.datacite.commons.PublicationApiClientException;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.datacite.commons.RequestDeadlineExceededException;
+import no.unit.nva.datacite.handlers.fingerprint.FindableDoiUpdater;
+import no.unit.nva.datacite.handlers.fingerprint.FingerprintStore;
+import no.unit.nva.datacite.handlers.fingerprint.InMemoryFingerprintStore;
+import no.unit.nva.datacite.jaxb.RelatedIdentifierPatcher;
 import no.unit.nva.doi.DoiClient;
+import no.unit.nva.doi.datacite.clients.ClientFutures;
+import no.unit.nva.doi.datacite.clients.ClientFutures.ClientCall;
 import no.unit.nva.doi.datacite.clients.DataCiteClientV2;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.clients.exception.ClientRuntimeException;
-import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
+import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
 import no.unit.nva.events.handlers.DestinationsEventBridgeEventHandler;
 import no.unit.nva.events.models.AwsEventBridgeDetail;
 import no.unit.nva.events.models.AwsEventBridgeEvent;
 import nva.commons.core.JacocoGenerated;
-import org.datacide.schema.kernel_4.RelatedIdentifierType;
-import org.datacide.schema.kernel_4.RelationType;
-import org.datacide.schema.kernel_4.Resource;
-import org.datacide.schema.kernel_4.Resource.RelatedIdentifiers;
-import org.datacide.schema.kernel_4.Resource.RelatedIdentifiers.RelatedIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@SuppressWarnings("PMD.DoNotUseThreads")
 public class UpdateDoiEventHandler
     extends DestinationsEventBridgeEventHandler<DoiUpdateRequestEvent, Void> {
 
@@ -47,12 +53,20 @@ public class UpdateDoiEventHandler
         + "and duplicateOf \"{}\")";
     private static final String SUCCESSFUL_DOI_REGISTERED =
         "Transition DOI {} to Registered DOI was successful (for publication {} and customer {})";
+    private static final String PUBLICATION_NOT_RESOLVED_BEFORE_DEADLINE_LOG =
+        "Publication {} was not resolved before the request deadline. Leaving the DOI as it is.";
     private static final Logger logger = LoggerFactory.getLogger(UpdateDoiEventHandler.class);
+    /**
+     * How long the publication may take to resolve before the state of the DOI is looked up while waiting for it.
+     */
+    public static final Duration STATE_PROBE_DELAY = Duration.ofMillis(250);
+    private static final ExecutorService SPECULATIVE_CALLS = Executors.newVirtualThreadPerTaskExecutor();
     public static final String ADDING_DUPLICATE_IDENTIFIER_TO_RESOURCE = "Adding duplicate identifier to resource {}";
     public static final String DELETING_DRAFT_DOI_MESSAGE = "Deleting draft DOI {} for customer {} when unpublished publication {}";
     public static final String DOI_ALREADY_REGISTERED_MESSAGE = "Doi is already registered {} at customer {} and publication {}";
     private final DoiClient doiClient;
     private final DataCiteMetadataResolver dataCiteMetadataResolver;
+    private final FindableDoiUpdater findableDoiUpdater;
 
     @JacocoGenerated
     public UpdateDoiEventHandler() {
@@ -61,29 +75,47 @@ public class UpdateDoiEventHandler
 
     public UpdateDoiEventHandler(DoiClient doiClient,
                                  DataCiteMetadataResolver dataCiteMetadataResolver) {
+        this(doiClient, dataCiteMetadataResolver, new InMemoryFingerprintStore());
+    }
+
+    public UpdateDoiEventHandler(DoiClient doiClient,
+                                 DataCiteMetadataResolver dataCiteMetadataResolver,
+                                 FingerprintStore fingerprintStore) {
         super(DoiUpdateRequestEvent.class);
         this.doiClient = doiClient;
         this.dataCiteMetadataResolver = dataCiteMetadataResolver;
+        this.findableDoiUpdater = new FindableDoiUpdater(doiClient, fingerprintStore);
     }
 
     @Override
     protected Void processInputPayload(DoiUpdateRequestEvent input,
                                        AwsEventBridgeEvent<AwsEventBridgeDetail<DoiUpdateRequestEvent>> event,
                                        Context context) {
+        try (var deadline = RequestDeadline.fromRemainingTime(context.getRemainingTimeInMillis()).bind()) {
+            return updateDoi(input);
+        }
+    }
 
+    private Void updateDoi(DoiUpdateRequestEvent input) {
         validateInput(input);
 
         var doi = getDoiFromEventOrDraftDoi(input);
+        var probe = new StateProbe(() -> doiClient.getDoiState(doi));
 
         try {
             var dataCiteXmlMetadata = dataCiteMetadataResolver.getDataCiteMetadataXml(input.getPublicationId());
+            probe.cancel();
             makeDoiFindable(input, doi, dataCiteXmlMetadata);
 
             return null;
         } catch (ClientException e) {
             throw new ClientRuntimeException(e);
+        } catch (RequestDeadlineExceededException e) {
+            probe.cancel();
+            logger.warn(PUBLICATION_NOT_RESOLVED_BEFORE_DEADLINE_LOG, input.getPublicationId());
+            throw e;
         } catch (PublicationApiClientException e) {
-            handleDoiWhenPublicationIsGone(input, e, doi);
+            handleDoiWhenPublicationIsGone(input, e, doi, probe);
         }
 
         return null;
@@ -92,15 +124,16 @@ public class UpdateDoiEventHandler
     private void handleDoiWhenPublicationIsGone(
         DoiUpdateRequestEvent input,
         PublicationApiClientException e,
-        Doi doi) {
+        Doi doi,
+        StateProbe probe) {
         logger.info(RECEIVED_REQUEST_TO_MAKE_DOI_REGISTERED_LOG,
                     doi.getUri(),
                     input.getPublicationId(),
                     input.getCustomerId(),
                     input.getDuplicateOf().orElse(null));
-        var response = attempt(() -> doiClient.getDoi(doi)).toOptional();
+        var response = attempt(probe::join).toOptional();
         if (response.isPresent()) {
-            handleDoiWhenPublicationIsGone(response.get(), input, doi, e) ;
+            handleDoiWhenPublicationIsGone(response.get(), input, doi, e);
         } else {
             throwException(e, input);
         }
@@ -111,9 +144,9 @@ public class UpdateDoiEventHandler
         throw exception;
     }
 
-    private void handleDoiWhenPublicationIsGone(DoiStateDto doiStateDto, DoiUpdateRequestEvent input, Doi doi,
+    private void handleDoiWhenPublicationIsGone(State state, DoiUpdateRequestEvent input, Doi doi,
                                                 PublicationApiClientException e) {
-        switch (doiStateDto.getState()) {
+        switch (state) {
             case FINDABLE -> handleFindableDoi(input, doi, e);
             case DRAFT -> deleteDraftDoi(input, doi);
             case REGISTERED -> handleRegisteredDoi(input, doi);
@@ -133,6 +166,7 @@ public class UpdateDoiEventHandler
     private void deleteDraftDoi(DoiUpdateRequestEvent updateRequestEvent, Doi doi) {
         try {
             logger.info(DELETING_DRAFT_DOI_MESSAGE, doi.getUri(), updateRequestEvent.getCustomerId(), updateRequestEvent.getPublicationId());
+            findableDoiUpdater.forget(doi);
             doiClient.deleteDraftDoi(doi);
         } catch (ClientException ex) {
             throw new RuntimeException(ex);
@@ -143,15 +177,15 @@ public class UpdateDoiEventHandler
         if (isDeletedPublication(exception) || isDeletedDuplicatePublication(exception)) {
             logger.info(SHOULD_REMOVE_METADATA_LOG_MESSAGE, input.getPublicationId(), exception.getStatus());
 
-            var resource = getMetadata(doi);
+            var metadata = getMetadata(doi);
 
             if (input.getDuplicateOf().isPresent()) {
                 var duplicateOf = input.getDuplicateOf().orElseThrow();
                 logger.info(ADDING_DUPLICATE_IDENTIFIER_TO_RESOURCE, duplicateOf);
-                addDuplicateIdentifier(resource, duplicateOf);
+                metadata = RelatedIdentifierPatcher.identicalTo(duplicateOf).patch(metadata);
             }
 
-            deleteMetadata(doi, toString(resource));
+            deleteMetadata(doi, metadata);
         }
     }
 
@@ -163,48 +197,8 @@ public class UpdateDoiEventHandler
         return e.getStatus() == GONE;
     }
 
-    private static String toString(Resource resource) {
-        var sw = new StringWriter();
-        JAXB.marshal(resource, sw);
-        return sw.toString();
-    }
-
-    private Resource getMetadata(Doi doi) {
-        return attempt(() -> doiClient.getMetadata(doi))
-                   .map(UpdateDoiEventHandler::unmarshall)
-                   .orElseThrow();
-    }
-
-    private static Resource unmarshall(String value) {
-        return JAXB.unmarshal(new StringReader(value), Resource.class);
-    }
-
-    private static void addDuplicateIdentifier(Resource resource, URI duplicateOf) {
-        var newIdentifier = new RelatedIdentifiers.RelatedIdentifier();
-        newIdentifier.setRelatedIdentifierType(RelatedIdentifierType.URL);
-        newIdentifier.setValue(duplicateOf.toString());
-        newIdentifier.setRelationType(RelationType.IS_IDENTICAL_TO);
-        newIdentifier.setResourceTypeGeneral(resource.getResourceType().getResourceTypeGeneral());
-
-        if (isNull(resource.getRelatedIdentifiers())) {
-            resource.setRelatedIdentifiers(new RelatedIdentifiers());
-        } else {
-            if (isRelatedIdentifierPresent(resource, newIdentifier)) {
-                return;  // If an identical identifier is found, don't add the new one
-            }
-        }
-
-        resource.getRelatedIdentifiers().getRelatedIdentifier().add(newIdentifier);
-    }
-
-    private static boolean isRelatedIdentifierPresent(Resource resource, RelatedIdentifier newIdentifier) {
-        return resource.getRelatedIdentifiers().getRelatedIdentifier().stream()
-                   .anyMatch(existingIdentifier -> isIdentical(newIdentifier, existingIdentifier));
-    }
-
-    private static boolean isIdentical(RelatedIdentifier newIdentifier, RelatedIdentifier existingIdentifier) {
-        return existingIdentifier.getValue().equals(newIdentifier.getValue())
-               && existingIdentifier.getRelatedIdentifierType().equals(newIdentifier.getRelatedIdentifierType());
+    private String getMetadata(Doi doi) {
+        return attempt(() -> doiClient.getMetadata(doi)).orElseThrow();
     }
 
     private void makeDoiFindable(
@@ -216,13 +210,14 @@ public class UpdateDoiEventHandler
                     input.getPublicationId(),
                     input.getCustomerId());
 
-        doiClient.updateMetadata(doi, dataCiteXmlMetadata);
-        doiClient.setLandingPage(doi, input.getPublicationId());
-        logger.info(SUCCESSFULLY_MADE_DOI_FINDABLE, doi.getUri());
+        if (findableDoiUpdater.makeFindable(doi, dataCiteXmlMetadata, input.getPublicationId())) {
+            logger.info(SUCCESSFULLY_MADE_DOI_FINDABLE, doi.getUri());
+        }
     }
 
     private void deleteMetadata(Doi doi, String updatedMetadata) {
         try {
+            findableDoiUpdater.forget(doi);
             doiClient.updateMetadata(doi, updatedMetadata);
             doiClient.deleteMetadata(doi);
         } catch (ClientException ex) {
@@ -254,4 +249,50 @@ public class UpdateDoiEventHandler
     private Doi getDoiFromEventOrDraftDoi(DoiUpdateRequestEvent input) {
         return Doi.fromUri(input.getDoi());
     }
+
+    /**
+     * Looks up the state of the DOI on a virtual thread when the publication has not resolved within
+     * {@link #STATE_PROBE_DELAY}, so that a slow lookup of a publication that turns out to be gone finds the state at
+     * hand. A publication that resolves in time costs no call to DataCite. The lookup runs under the deadline bound to
+     * the thread that created the probe.
+     */
+    private static final class StateProbe {
+
+        private final ClientCall<State> lookup;
+        private final RequestDeadline deadline;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<State> state = new CompletableFuture<>();
+
+        private StateProbe(ClientCall<State> lookup) {
+            this.lookup = lookup;
+            this.deadline = RequestDeadline.current();
+            CompletableFuture.delayedExecutor(STATE_PROBE_DELAY.toMillis(), TimeUnit.MILLISECONDS, SPECULATIVE_CALLS)
+                .execute(this::startIfNotStarted);
+        }
+
+        /**
+         * The state of the DOI, looked up on the calling thread when the probe has not started yet.
+         */
+        private State join() throws ClientException {
+            startIfNotStarted();
+            return ClientFutures.join(state);
+        }
+
+        /**
+         * Keeps the probe from starting. A lookup already in flight cannot be interrupted, and its result is ignored.
+         */
+        private void cancel() {
+            started.set(true);
+        }
+
+        private void startIfNotStarted() {
+            if (started.compareAndSet(false, true)) {
+                try (var scope = deadline.bind()) {
+                    state.complete(lookup.call());
+                } catch (ClientException | RuntimeException exception) {
+                    state.completeExceptionally(exception);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package no.unit.nva.datacite.handlers.fingerprint;
+
+import java.net.URI;
+import no.unit.nva.doi.DoiClient;
+import no.unit.nva.doi.datacite.clients.exception.ClientException;
+import no.unit.nva.doi.datacite.restclient.models.State;
+import no.unit.nva.doi.models.Doi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Makes DOIs findable by uploading their metadata and setting their landing page, skipping both calls to DataCite when
+ * the metadata and landing page are the same as in the last upload recorded in the {@link FingerprintStore} and the
+ * DOI is still findable.
+ *
+ * <p>The state is looked up before every skip, because the DOI may have been made registered since the last upload by
+ * a function that cannot forget the fingerprints kept in this store, such as the handlers of deleted resources and
+ * draft DOIs running in other containers.
+ */
+public class FindableDoiUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(FindableDoiUpdater.class);
+
+    private final DoiClient doiClient;
+    private final FingerprintStore fingerprints;
+
+    public FindableDoiUpdater(DoiClient doiClient, FingerprintStore fingerprints) {
+        this.doiClient = doiClient;
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * Uploads the metadata and sets the landing page, unless both are unchanged since the last upload and the DOI is
+     * still findable. The fingerprint is only recorded once both calls have succeeded.
+     *
+     * @param doi         the DOI to make findable.
+     * @param dataCiteXml the metadata of the DOI.
+     * @param landingPage the landing page of the DOI.
+     * @return false when the upload was skipped.
+     * @throws ClientException when DataCite fails to take the metadata or the landing page.
+     */
+    public boolean makeFindable(Doi doi, String dataCiteXml, URI landingPage) throws ClientException {
+        var fingerprint = MetadataFingerprint.of(dataCiteXml, landingPage);
+        if (isUnchangedAndFindable(doi, fingerprint)) {
+            logger.info("Metadata and landing page of DOI {} are unchanged. Skipping upload.", doi.getUri());
+            return false;
+        }
+        doiClient.updateMetadata(doi, dataCiteXml);
+        doiClient.setLandingPage(doi, landingPage);
+        fingerprints.put(doi, fingerprint);
+        return true;
+    }
+
+    public void forget(Doi doi) {
+        fingerprints.remove(doi);
+    }
+
+    /**
+     * Checks the state only when the fingerprint matches. A failing lookup is treated like a DOI that is not findable,
+     * so that the upload is done rather than skipped.
+     */
+    private boolean isUnchangedAndFindable(Doi doi, MetadataFingerprint fingerprint) {
+        if (fingerprints.get(doi).filter(fingerprint::equals).isEmpty()) {
+            return false;
+        }
+        try {
+            return State.FINDABLE.equals(doiClient.getDoiState(doi));
+        } catch (ClientException exception) {
+            logger.warn("Failed to look up the state of DOI {}. Uploading its metadata.", doi.getUri(), exception);
+            return false;
+        }
+    }
+}
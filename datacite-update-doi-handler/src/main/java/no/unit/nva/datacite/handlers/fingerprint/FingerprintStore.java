@@ -0,0 +1,23 @@
+package no.unit.nva.datacite.handlers.fingerprint;
+
+import java.util.Optional;
+import no.unit.nva.doi.models.Doi;
+
+/**
+ * Remembers the {@link MetadataFingerprint} of the last upload that made a DOI findable, so that uploading the same
+ * metadata and landing page again can be skipped.
+ */
+public interface FingerprintStore {
+
+    Optional<MetadataFingerprint> get(Doi doi);
+
+    void put(Doi doi, MetadataFingerprint fingerprint);
+
+    /**
+     * Forgets the fingerprint of the DOI. To be called whenever the DOI is changed in DataCite by other means than an
+     * upload of its metadata and landing page, so that the next upload is not skipped.
+     *
+     * @param doi the DOI to forget.
+     */
+    void remove(Doi doi);
+}
@@ -0,0 +1,125 @@
+package no.unit.nva.datacite.handlers.fingerprint;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import no.unit.nva.doi.models.Doi;
+
+/**
+ * Keeps the fingerprints in the memory of the Lambda container, for a limited time. Other functions changing the same
+ * DOIs run in other containers and cannot forget the fingerprints kept here. The {@link FindableDoiUpdater} therefore
+ * confirms that a DOI is still findable before skipping it, and a fingerprint is only trusted for
+ * {@link #DEFAULT_TIME_TO_LIVE} by default: long enough to absorb bursts of identical events, short enough to keep
+ * metadata changed elsewhere from being left as it is for long.
+ *
+ * <p>Entries are kept in the order they were written, which is also the order they expire in. Every write first
+ * sweeps the expired entries, and the oldest entry is dropped once the store holds {@link #DEFAULT_CAPACITY} entries
+ * by default, so a warm container handling many distinct DOIs does not grow without limit.
+ */
+public class InMemoryFingerprintStore implements FingerprintStore {
+
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+    public static final int DEFAULT_CAPACITY = 10_000;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> fingerprints;
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    public InMemoryFingerprintStore() {
+        this(DEFAULT_TIME_TO_LIVE, Clock.systemUTC());
+    }
+
+    public InMemoryFingerprintStore(Duration timeToLive, Clock clock) {
+        this(timeToLive, DEFAULT_CAPACITY, clock);
+    }
+
+    public InMemoryFingerprintStore(Duration timeToLive, int capacity, Clock clock) {
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.fingerprints = new LinkedHashMap<>(capacity, LOAD_FACTOR, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public Optional<MetadataFingerprint> get(Doi doi) {
+        var key = keyOf(doi);
+        lock.lock();
+        try {
+            var entry = fingerprints.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (isLive(entry, clock.instant())) {
+                return Optional.of(entry.fingerprint());
+            }
+            fingerprints.remove(key);
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Doi doi, MetadataFingerprint fingerprint) {
+        var key = keyOf(doi);
+        lock.lock();
+        try {
+            var now = clock.instant();
+            sweepExpired(now);
+            fingerprints.remove(key);
+            fingerprints.put(key, new Entry(fingerprint, now.plus(timeToLive)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Doi doi) {
+        var key = keyOf(doi);
+        lock.lock();
+        try {
+            fingerprints.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return fingerprints.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String keyOf(Doi doi) {
+        return doi.toIdentifier().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isLive(Entry entry, Instant now) {
+        return now.isBefore(entry.expiresAt());
+    }
+
+    private void sweepExpired(Instant now) {
+        var iterator = fingerprints.values().iterator();
+        while (iterator.hasNext() && !isLive(iterator.next(), now)) {
+            iterator.remove();
+        }
+    }
+
+    private record Entry(MetadataFingerprint fingerprint, Instant expiresAt) {
+
+    }
+}
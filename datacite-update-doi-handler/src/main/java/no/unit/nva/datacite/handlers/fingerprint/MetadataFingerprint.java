@@ -0,0 +1,106 @@
+package no.unit.nva.datacite.handlers.fingerprint;
+
+import static nva.commons.core.attempt.Try.attempt;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * What is uploaded to DataCite to make a DOI findable: a hash of the canonical form of the DataCite XML, and the
+ * landing page.
+ *
+ * <p>The canonical form consists of the elements, attributes and text of the document, read with a streaming parser.
+ * Documents that only differ in formatting, namespace prefixes, attribute order, comments or XML declaration therefore
+ * get the same hash. Text that is only whitespace is left out. A document that cannot be parsed is hashed as it is.
+ *
+ * @param xmlHash     the SHA-256 hash of the canonical form of the XML, hex encoded.
+ * @param landingPage the landing page of the DOI.
+ */
+public record MetadataFingerprint(String xmlHash, URI landingPage) {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final byte START_ELEMENT = 1;
+    private static final byte ATTRIBUTE = 2;
+    private static final byte TEXT = 3;
+    private static final byte END_ELEMENT = 4;
+    private static final String NAMESPACE_SEPARATOR = "}";
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    public static MetadataFingerprint of(String dataCiteXml, URI landingPage) {
+        return new MetadataFingerprint(hash(dataCiteXml), landingPage);
+    }
+
+    private static String hash(String xml) {
+        var digest = attempt(() -> MessageDigest.getInstance(HASH_ALGORITHM)).orElseThrow();
+        try {
+            digestCanonicalForm(xml, digest);
+        } catch (XMLStreamException exception) {
+            digest.reset();
+            digest.update(xml.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void digestCanonicalForm(String xml, MessageDigest digest) throws XMLStreamException {
+        var reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(xml));
+        try {
+            while (reader.hasNext()) {
+                var event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    update(digest, START_ELEMENT, qualifiedName(reader.getNamespaceURI(), reader.getLocalName()));
+                    digestAttributes(reader, digest);
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    digest.update(END_ELEMENT);
+                } else if (event == XMLStreamConstants.CHARACTERS && !reader.isWhiteSpace()) {
+                    update(digest, TEXT, reader.getText());
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void digestAttributes(XMLStreamReader reader, MessageDigest digest) {
+        Map<String, String> attributes = new TreeMap<>();
+        for (var i = 0; i < reader.getAttributeCount(); i++) {
+            attributes.put(qualifiedName(reader.getAttributeNamespace(i), reader.getAttributeLocalName(i)),
+                           reader.getAttributeValue(i));
+        }
+        attributes.forEach((name, value) -> update(digest, ATTRIBUTE, name, value));
+    }
+
+    private static String qualifiedName(String namespace, String localName) {
+        return Objects.toString(namespace, "") + NAMESPACE_SEPARATOR + localName;
+    }
+
+    /**
+     * Adds the values to the digest, each preceded by its length, so that different sequences of values never produce
+     * the same input to the digest.
+     */
+    private static void update(MessageDigest digest, byte type, String... values) {
+        digest.update(type);
+        for (var value : values) {
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            digest.update(bytes);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        var factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -5,8 +5,10 @@ import static no.unit.nva.doi.datacite.clients.DataCiteRestApiClient.ACCEPT;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -26,6 +28,7 @@ import no.unit.nva.datacite.handlers.model.DoiResponse;
 import no.unit.nva.datacite.handlers.model.UpdateDoiRequest;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
+import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
 import no.unit.nva.identifiers.SortableIdentifier;
 import no.unit.nva.stubs.WiremockHttpClient;
@@ -79,6 +82,19 @@ public class FindableDoiHandlerTest extends TestBase {
         assertThat(expectedDoi.getUri(), is(equalTo(response.getBodyObject(DoiResponse.class).getDoi())));
     }
 
+    @Test
+    void shouldSkipMetadataUploadWhenMetadataAndLandingPageAreUnchanged() throws IOException, ClientException {
+        var publicationIdentifier = SortableIdentifier.next().toString();
+        mockDataciteXmlBody(publicationIdentifier, DATACITE_XML_BODY);
+        when(doiClient.getDoiState(any())).thenReturn(State.FINDABLE);
+        handler.handleRequest(createRequest(publicationIdentifier), output, context);
+        handler.handleRequest(createRequest(publicationIdentifier), new ByteArrayOutputStream(), context);
+
+        var expectedDoi = Doi.fromUri(VALID_SAMPLE_DOI);
+        verify(doiClient, times(1)).updateMetadata(expectedDoi, DATACITE_XML_BODY);
+        verify(doiClient, times(1)).setLandingPage(eq(expectedDoi), any());
+    }
+
     private InputStream createRequest(String publicationId) throws JsonProcessingException {
         return new HandlerRequestBuilder<UpdateDoiRequest>(dtoObjectMapper)
                    .withHeaders(Map.of(ACCEPT, ContentType.APPLICATION_JSON.getMimeType()))
@@ -6,13 +6,16 @@ import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static no.unit.nva.datacite.handlers.UpdateDoiEventHandler.MANDATORY_FIELD_ERROR_PREFIX;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -28,14 +31,18 @@ import java.io.StringWriter;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import no.unit.nva.datacite.commons.DataCiteMetadataResolver;
 import no.unit.nva.datacite.commons.DoiUpdateRequestEvent;
 import no.unit.nva.datacite.commons.PublicationApiClientException;
+import no.unit.nva.datacite.commons.RequestDeadline;
+import no.unit.nva.datacite.commons.RequestDeadlineExceededException;
 import no.unit.nva.datacite.commons.TestBase;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.clients.exception.ClientRuntimeException;
-import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
 import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
 import no.unit.nva.identifiers.SortableIdentifier;
@@ -47,6 +54,8 @@ import nva.commons.logutils.TestAppender;
 import org.datacide.schema.kernel_4.Resource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 @WireMockTest(httpsEnabled = true)
 public class UpdateDoiEventHandlerTest extends TestBase {
@@ -63,6 +72,10 @@ public class UpdateDoiEventHandlerTest extends TestBase {
     private static final String DATACITE_XML_BODY = IoUtils.stringFromResources(Path.of("datacite.xml"));
     private static final String DATACITE_XML_WITH_DUPLICATE_BODY =
         IoUtils.stringFromResources(Path.of("datacite-with-duplicate.xml"));
+    private static final String DATACITE_XML_WITH_RELATED_IDENTIFIER_BODY =
+        IoUtils.stringFromResources(Path.of("datacite-with-related-identifier.xml"));
+    private static final String DATACITE_XML_WITH_RELATED_AND_DUPLICATE_BODY =
+        IoUtils.stringFromResources(Path.of("datacite-with-related-and-duplicate-identifier.xml"));
     private final DoiClient doiClient = mock(DoiClient.class);
     private UpdateDoiEventHandler updateDoiHandler;
     private ByteArrayOutputStream outputStream;
@@ -218,8 +231,30 @@ public class UpdateDoiEventHandlerTest extends TestBase {
         }
     }
 
+    @Test
+    void whenDeletingDoiMetadataAppendDuplicateToExistingRelatedIds()
+        throws ClientException, IOException {
+        var publicationIdentifier = SortableIdentifier.next().toString();
+        var doi = Doi.fromUri(VALID_SAMPLE_DOI);
+        var mainUri = UriWrapper.fromUri("https://example.no/publication/123").getUri();
+        mockGetDoiResponse(State.FINDABLE);
+        when(doiClient.getMetadata(any())).thenReturn(DATACITE_XML_WITH_RELATED_IDENTIFIER_BODY);
+
+        try (var inputStream = createDoiRequestInputStream(publicationIdentifier, VALID_SAMPLE_DOI,
+                                                           CUSTOMER_ID_IN_INPUT_EVENT, mainUri)) {
+            mockDataciteXmlPermanentlyMoved(publicationIdentifier, mainUri.toString());
+            updateDoiHandler.handleRequest(inputStream, outputStream, context);
+
+            verify(doiClient).updateMetadata(
+                eq(doi),
+                argThat(s -> comparableSerializedObject(s).equals(
+                    comparableSerializedObject(DATACITE_XML_WITH_RELATED_AND_DUPLICATE_BODY)))
+            );
+        }
+    }
+
     private void mockGetDoiResponse(State state) throws ClientException {
-        when(doiClient.getDoi(any())).thenReturn(new DoiStateDto(VALID_SAMPLE_DOI.toString(), state));
+        when(doiClient.getDoiState(any())).thenReturn(state);
     }
 
     @Test
@@ -250,7 +285,7 @@ public class UpdateDoiEventHandlerTest extends TestBase {
         var publicationIdentifier = SortableIdentifier.next().toString();
         try (var inputStream = createDoiRequestInputStream(publicationIdentifier, VALID_SAMPLE_DOI,
                                                            CUSTOMER_ID_IN_INPUT_EVENT, null)) {
-            when(doiClient.getDoi(any())).thenThrow(new ClientException());
+            when(doiClient.getDoiState(any())).thenThrow(new ClientException());
             assertThrows(PublicationApiClientException.class,
                     () -> updateDoiHandler.handleRequest(inputStream, outputStream, context));
         }
@@ -301,6 +336,99 @@ public class UpdateDoiEventHandlerTest extends TestBase {
         }
     }
 
+    @Test
+    void shouldProbeDoiStateWhilePublicationIsBeingResolved() throws IOException, ClientException {
+        var publicationIdentifier = SortableIdentifier.next().toString();
+        var probed = new CountDownLatch(1);
+        var probedBeforeResolved = new AtomicBoolean();
+        var probedUnderDeadline = new AtomicBoolean();
+        var resolver = mock(DataCiteMetadataResolver.class);
+        when(resolver.getDataCiteMetadataXml(any())).thenAnswer(invocation -> {
+            probedBeforeResolved.set(probed.await(5, TimeUnit.SECONDS));
+            return DATACITE_XML_BODY;
+        });
+        when(doiClient.getDoiState(any())).thenAnswer(invocation -> {
+            probedUnderDeadline.set(RequestDeadline.current().isBounded());
+            probed.countDown();
+            return State.DRAFT;
+        });
+        when(context.getRemainingTimeInMillis()).thenReturn(60_000);
+        updateDoiHandler = new UpdateDoiEventHandler(doiClient, resolver);
+        try (var inputStream = createDoiRequestInputStream(publicationIdentifier, VALID_SAMPLE_DOI,
+                                                           CUSTOMER_ID_IN_INPUT_EVENT, null)) {
+            updateDoiHandler.handleRequest(inputStream, outputStream, context);
+
+            assertThat(probedBeforeResolved.get(), is(true));
+            assertThat(probedUnderDeadline.get(), is(true));
+            verify(doiClient).setLandingPage(any(), any());
+            verify(doiClient, never()).deleteDraftDoi(any());
+        }
+    }
+
+    @Test
+    void shouldLeaveDoiAloneAndFailWhenPublicationIsNotResolvedBeforeDeadline() throws IOException, ClientException {
+        var publicationIdentifier = SortableIdentifier.next().toString();
+        var resolver = mock(DataCiteMetadataResolver.class);
+        when(resolver.getDataCiteMetadataXml(any()))
+            .thenThrow(new RequestDeadlineExceededException(DataCiteMetadataResolver.DEADLINE_PASSED_MESSAGE));
+        mockGetDoiResponse(State.DRAFT);
+        updateDoiHandler = new UpdateDoiEventHandler(doiClient, resolver);
+        try (var inputStream = createDoiRequestInputStream(publicationIdentifier, VALID_SAMPLE_DOI,
+                                                           CUSTOMER_ID_IN_INPUT_EVENT, null)) {
+            assertThrows(RequestDeadlineExceededException.class,
+                         () -> updateDoiHandler.handleRequest(inputStream, outputStream, context));
+
+            verify(doiClient, never()).deleteDraftDoi(any());
+            verify(doiClient, never()).deleteMetadata(any());
+        }
+    }
+
+    @Test
+    void shouldNotLookUpDoiStateWhenPublicationResolvesBeforeStateProbeDelay() throws ClientException {
+        var publicationIdentifier = SortableIdentifier.next().toString();
+        var resolver = mock(DataCiteMetadataResolver.class);
+        when(resolver.getDataCiteMetadataXml(any())).thenReturn(DATACITE_XML_BODY);
+        updateDoiHandler = new UpdateDoiEventHandler(doiClient, resolver);
+
+        updateDoiHandler.handleRequest(createDoiRequestInputStream(publicationIdentifier), outputStream, context);
+
+        verify(doiClient, after(2 * UpdateDoiEventHandler.STATE_PROBE_DELAY.toMillis()).never()).getDoiState(any());
+        verify(doiClient, never()).getMetadata(any());
+    }
+
+    @Test
+    void shouldSkipMetadataUploadWhenMetadataAndLandingPageAreUnchanged() throws IOException, ClientException {
+        var publicationIdentifier = SortableIdentifier.next().toString();
+        mockDataciteXmlBody(publicationIdentifier);
+        when(doiClient.getDoiState(any())).thenReturn(State.FINDABLE);
+        for (var i = 0; i < 2; i++) {
+            try (var inputStream = createDoiRequestInputStream(publicationIdentifier)) {
+                updateDoiHandler.handleRequest(inputStream, new ByteArrayOutputStream(), context);
+            }
+        }
+
+        var expectedDoi = Doi.fromUri(VALID_SAMPLE_DOI);
+        verify(doiClient, times(1)).updateMetadata(expectedDoi, DATACITE_XML_BODY);
+        verify(doiClient, times(1)).setLandingPage(eq(expectedDoi), any());
+    }
+
+    @ParameterizedTest
+    @EnumSource(mode = EnumSource.Mode.EXCLUDE, value = State.class, names = "FINDABLE")
+    void shouldUploadUnchangedMetadataAgainWhenDoiIsNoLongerFindable(State state) throws IOException, ClientException {
+        var publicationIdentifier = SortableIdentifier.next().toString();
+        mockDataciteXmlBody(publicationIdentifier);
+        when(doiClient.getDoiState(any())).thenReturn(state);
+        for (var i = 0; i < 2; i++) {
+            try (var inputStream = createDoiRequestInputStream(publicationIdentifier)) {
+                updateDoiHandler.handleRequest(inputStream, new ByteArrayOutputStream(), context);
+            }
+        }
+
+        var expectedDoi = Doi.fromUri(VALID_SAMPLE_DOI);
+        verify(doiClient, times(2)).updateMetadata(expectedDoi, DATACITE_XML_BODY);
+        verify(doiClient, times(2)).setLandingPage(eq(expectedDoi), any());
+    }
+
     private void mockDataciteXmlBody(String publicationIdentifier) {
         stubFor(WireMock.get(urlPathEqualTo("/publication/" + publicationIdentifier))
                     .withHeader("Accept", WireMock.equalTo("application/vnd.datacite.datacite+xml"))
@@ -0,0 +1,94 @@
+package no.unit.nva.datacite.handlers.fingerprint;
+
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import no.unit.nva.doi.models.Doi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryFingerprintStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Doi DOI = Doi.fromUri(doiUri("10.1000/abc"));
+
+    private Clock clock;
+    private InMemoryFingerprintStore store;
+    private MetadataFingerprint fingerprint;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(NOW);
+        store = new InMemoryFingerprintStore(InMemoryFingerprintStore.DEFAULT_TIME_TO_LIVE, clock);
+        fingerprint = MetadataFingerprint.of("<resource/>", randomUri());
+    }
+
+    @Test
+    void shouldReturnStoredFingerprintRegardlessOfDoiCase() {
+        store.put(DOI, fingerprint);
+
+        assertThat(store.get(Doi.fromUri(doiUri("10.1000/ABC"))), is(equalTo(Optional.of(fingerprint))));
+    }
+
+    @Test
+    void shouldForgetFingerprintWhenRemoved() {
+        store.put(DOI, fingerprint);
+        store.remove(DOI);
+
+        assertThat(store.get(DOI), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldForgetFingerprintOnceTimeToLiveHasPassed() {
+        store.put(DOI, fingerprint);
+        when(clock.instant()).thenReturn(NOW.plus(InMemoryFingerprintStore.DEFAULT_TIME_TO_LIVE));
+
+        assertThat(store.get(DOI), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void shouldUseDefaultTimeToLiveAndSystemClockWhenNoneIsGiven() {
+        var defaultStore = new InMemoryFingerprintStore();
+        defaultStore.put(DOI, fingerprint);
+
+        assertThat(defaultStore.get(DOI), is(equalTo(Optional.of(fingerprint))));
+    }
+
+    @Test
+    void shouldSweepExpiredFingerprintsWhenWritingAnother() {
+        store.put(DOI, fingerprint);
+        store.put(Doi.fromUri(doiUri("10.1000/def")), fingerprint);
+        when(clock.instant()).thenReturn(NOW.plus(InMemoryFingerprintStore.DEFAULT_TIME_TO_LIVE));
+
+        store.put(Doi.fromUri(doiUri("10.1000/ghi")), fingerprint);
+
+        assertThat(store.size(), is(equalTo(1)));
+    }
+
+    @Test
+    void shouldDropOldestFingerprintWhenCapacityIsReached() {
+        var boundedStore = new InMemoryFingerprintStore(InMemoryFingerprintStore.DEFAULT_TIME_TO_LIVE, 2, clock);
+        var newer = Doi.fromUri(doiUri("10.1000/def"));
+        var newest = Doi.fromUri(doiUri("10.1000/ghi"));
+        boundedStore.put(DOI, fingerprint);
+        boundedStore.put(newer, fingerprint);
+        boundedStore.put(newest, fingerprint);
+
+        assertThat(boundedStore.size(), is(equalTo(2)));
+        assertThat(boundedStore.get(DOI), is(equalTo(Optional.empty())));
+        assertThat(boundedStore.get(newer), is(equalTo(Optional.of(fingerprint))));
+        assertThat(boundedStore.get(newest), is(equalTo(Optional.of(fingerprint))));
+    }
+
+    private static URI doiUri(String identifier) {
+        return URI.create("https://doi.org/" + identifier);
+    }
+}
@@ -0,0 +1,65 @@
+package no.unit.nva.datacite.handlers.fingerprint;
+
+import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import java.net.URI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetadataFingerprintTest {
+
+    private static final String DATACITE_XML = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <resource xmlns="http://datacite.org/schema/kernel-4">
+          <identifier identifierType="DOI">10.1000/182</identifier>
+          <titles>
+            <title xml:lang="en" titleType="Subtitle">A title</title>
+          </titles>
+        </resource>
+        """;
+
+    private URI landingPage;
+
+    @BeforeEach
+    void setUp() {
+        landingPage = randomUri();
+    }
+
+    @Test
+    void shouldBeEqualForDocumentsOnlyDifferingInFormatting() {
+        var reformatted = "<dc:resource xmlns:dc=\"http://datacite.org/schema/kernel-4\"><!-- generated -->"
+                          + "<dc:identifier identifierType=\"DOI\">10.1000/182</dc:identifier>"
+                          + "<dc:titles><dc:title titleType=\"Subtitle\" xml:lang=\"en\"><![CDATA[A title]]>"
+                          + "</dc:title></dc:titles></dc:resource>";
+
+        assertThat(MetadataFingerprint.of(reformatted, landingPage),
+                   is(equalTo(MetadataFingerprint.of(DATACITE_XML, landingPage))));
+    }
+
+    @Test
+    void shouldDifferWhenTextDiffers() {
+        var changed = DATACITE_XML.replace("A title", "Another title");
+
+        assertThat(MetadataFingerprint.of(changed, landingPage),
+                   is(not(equalTo(MetadataFingerprint.of(DATACITE_XML, landingPage)))));
+    }
+
+    @Test
+    void shouldDifferWhenLandingPageDiffers() {
+        assertThat(MetadataFingerprint.of(DATACITE_XML, randomUri()),
+                   is(not(equalTo(MetadataFingerprint.of(DATACITE_XML, landingPage)))));
+    }
+
+    @Test
+    void shouldHashDocumentsThatCannotBeParsedAsTheyAre() {
+        var unparsable = "<resource><titles></resource>";
+
+        assertThat(MetadataFingerprint.of(unparsable, landingPage),
+                   is(equalTo(MetadataFingerprint.of(unparsable, landingPage))));
+        assertThat(MetadataFingerprint.of(unparsable, landingPage),
+                   is(not(equalTo(MetadataFingerprint.of(unparsable + " ", landingPage)))));
+    }
+}
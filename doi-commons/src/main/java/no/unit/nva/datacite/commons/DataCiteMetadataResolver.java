@@ -8,6 +8,8 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.attempt.Failure;
 
@@ -16,15 +18,25 @@ public class DataCiteMetadataResolver {
     private static final String ACCEPT = "Accept";
     private static final String APPLICATION_VND_DATACITE_DATACITE_XML = "application/vnd.datacite.datacite+xml";
     public static final String PUBLICATION_API_ERROR_MESSAGE = "Publication api answered with status: ";
+    public static final String DEADLINE_PASSED_MESSAGE = "Request deadline passed before calling publication api";
+    public static final String DEADLINE_PASSED_WHILE_WAITING_MESSAGE =
+        "Request deadline passed while waiting for publication api";
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
     private final HttpClient httpClient;
+    private final Duration timeout;
 
     public DataCiteMetadataResolver(HttpClient httpClient) {
+        this(httpClient, DEFAULT_TIMEOUT);
+    }
+
+    public DataCiteMetadataResolver(HttpClient httpClient, Duration timeout) {
         this.httpClient = httpClient;
+        this.timeout = timeout;
     }
 
     @JacocoGenerated
     public DataCiteMetadataResolver() {
-        this(HttpClient.newBuilder().build());
+        this(HttpTransport.sharedClient());
     }
 
     public String getDataCiteMetadataXml(URI publicationID) {
@@ -34,8 +46,15 @@ public class DataCiteMetadataResolver {
                    .orElseThrow(this::handleFailure);
     }
 
-    private PublicationApiClientException handleFailure(Failure<String> failure) {
-        return new PublicationApiClientException(failure.getException());
+    private RuntimeException handleFailure(Failure<String> failure) {
+        var exception = failure.getException();
+        if (exception instanceof RequestDeadlineExceededException deadlineExceeded) {
+            return deadlineExceeded;
+        }
+        if (exception instanceof HttpTimeoutException && RequestDeadline.current().isExpired()) {
+            return new RequestDeadlineExceededException(DEADLINE_PASSED_WHILE_WAITING_MESSAGE, exception);
+        }
+        return new PublicationApiClientException(exception);
     }
 
     private String getBodyFromResponse(HttpResponse<String> response) {
@@ -52,10 +71,15 @@ public class DataCiteMetadataResolver {
     }
 
     private HttpRequest createRequest(URI publicationID) {
+        var timeoutWithinDeadline = RequestDeadline.current().clamp(timeout);
+        if (timeoutWithinDeadline.isZero()) {
+            throw new RequestDeadlineExceededException(DEADLINE_PASSED_MESSAGE);
+        }
         return HttpRequest.newBuilder()
                    .uri(publicationID)
                    .GET()
                    .header(ACCEPT, APPLICATION_VND_DATACITE_DATACITE_XML)
+                   .timeout(timeoutWithinDeadline)
                    .build();
     }
 }
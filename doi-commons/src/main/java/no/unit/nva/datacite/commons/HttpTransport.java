@@ -0,0 +1,53 @@
+package no.unit.nva.datacite.commons;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the {@link HttpClient} used for all outbound calls. A single client is shared per Lambda container, so
+ * pooled connections and TLS sessions are reused across invocations instead of being set up again for every call.
+ *
+ * <p>The idle keep-alive of pooled connections is a JVM-wide setting, {@code jdk.httpclient.keepalive.timeout}, which
+ * the JDK reads once. It is not set here, but for every function in the {@code JAVA_TOOL_OPTIONS} of the template.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class HttpTransport {
+
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
+    private HttpTransport() {
+    }
+
+    /**
+     * The client shared by everything running in this JVM.
+     *
+     * @return the shared client, created on first use.
+     */
+    public static HttpClient sharedClient() {
+        return SharedClientHolder.CLIENT;
+    }
+
+    /**
+     * Creates a new client that prefers HTTP/2 and falls back to HTTP/1.1 when the server does not negotiate it.
+     * Responses are handled on virtual threads, so blocking callers and async pipelines do not compete with the common
+     * fork-join pool.
+     *
+     * @return a new client.
+     */
+    public static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                   .version(Version.HTTP_2)
+                   .connectTimeout(CONNECT_TIMEOUT)
+                   .followRedirects(Redirect.NEVER)
+                   .executor(Executors.newVirtualThreadPerTaskExecutor())
+                   .build();
+    }
+
+    private static final class SharedClientHolder {
+
+        private static final HttpClient CLIENT = newClient();
+    }
+}
@@ -0,0 +1,123 @@
+package no.unit.nva.datacite.commons;
+
+import java.time.Duration;
+
+/**
+ * The point in time by which outbound calls made on behalf of the current invocation must have finished.
+ *
+ * <p>A handler binds a deadline derived from the Lambda context for the duration of its work, and the clients read it
+ * with {@link #current()} when they start a call. Calls then use the smaller of their own timeout and the time left,
+ * and are not started at all once the deadline has passed. Without a bound deadline the deadline is unbounded.
+ */
+public final class RequestDeadline {
+
+    /**
+     * Time reserved for the handler itself to log and return a response after the last outbound call.
+     */
+    public static final Duration SAFETY_MARGIN = Duration.ofMillis(500);
+    private static final RequestDeadline UNBOUNDED = new RequestDeadline(0, false);
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private RequestDeadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    public static RequestDeadline unbounded() {
+        return UNBOUNDED;
+    }
+
+    public static RequestDeadline after(Duration timeLeft) {
+        return new RequestDeadline(System.nanoTime() + timeLeft.toNanos(), true);
+    }
+
+    /**
+     * Derives the deadline from the time the Lambda runtime reports as remaining, keeping the {@link #SAFETY_MARGIN}.
+     * A runtime that does not report any remaining time (such as a local run) yields an unbounded deadline.
+     *
+     * @param remainingTimeInMillis the value of {@code Context.getRemainingTimeInMillis()}.
+     * @return the deadline for outbound calls.
+     */
+    public static RequestDeadline fromRemainingTime(long remainingTimeInMillis) {
+        return remainingTimeInMillis > 0
+                   ? after(Duration.ofMillis(remainingTimeInMillis).minus(SAFETY_MARGIN))
+                   : unbounded();
+    }
+
+    /**
+     * The deadline bound to the calling thread.
+     *
+     * @return the bound deadline, or an unbounded one when none is bound.
+     */
+    public static RequestDeadline current() {
+        var deadline = CURRENT.get();
+        return deadline == null ? UNBOUNDED : deadline;
+    }
+
+    /**
+     * Binds this deadline to the calling thread until the returned scope is closed, after which the previously bound
+     * deadline is restored.
+     *
+     * @return the scope to close when the work under this deadline is done.
+     */
+    public Scope bind() {
+        var previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> restore(previous);
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Checks whether waiting for the given duration still leaves time before the deadline.
+     *
+     * @param wait the time the caller intends to spend before its next call.
+     * @return true when the next call can still start after the wait.
+     */
+    public boolean allows(Duration wait) {
+        return !bounded || wait.toNanos() < remainingNanos();
+    }
+
+    /**
+     * Shortens a timeout so that it does not reach past the deadline.
+     *
+     * @param timeout the timeout the call would use without a deadline.
+     * @return the smaller of the timeout and the time left.
+     */
+    public Duration clamp(Duration timeout) {
+        return bounded && remainingNanos() < timeout.toNanos()
+                   ? Duration.ofNanos(Math.max(remainingNanos(), 0))
+                   : timeout;
+    }
+
+    private static void restore(RequestDeadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * The binding of a deadline to a thread, closed to release it.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
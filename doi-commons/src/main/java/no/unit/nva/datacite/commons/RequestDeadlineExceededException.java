@@ -0,0 +1,16 @@
+package no.unit.nva.datacite.commons;
+
+/**
+ * Exception thrown when a call is not made, or not answered, before the {@link RequestDeadline} of the invocation.
+ * It says nothing about the resource that was asked for, so the invocation should be retried rather than acted on.
+ */
+public class RequestDeadlineExceededException extends RuntimeException {
+
+    public RequestDeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public RequestDeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,70 @@
+package no.unit.nva.datacite.commons;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.Status;
+
+class DataCiteMetadataResolverTest {
+
+    private static final URI PUBLICATION_ID = URI.create("https://api.example.org/publication/0190e3b2c6a1-abc");
+    private static final Duration SHORT_TIME = Duration.ofMillis(50);
+
+    private HttpClient httpClient;
+    private DataCiteMetadataResolver resolver;
+
+    @BeforeEach
+    void setup() {
+        httpClient = mock(HttpClient.class);
+        resolver = new DataCiteMetadataResolver(httpClient);
+    }
+
+    @Test
+    void shouldNotCallPublicationApiWhenRequestDeadlineHasPassed() throws IOException, InterruptedException {
+        try (var deadline = RequestDeadline.after(Duration.ZERO).bind()) {
+            assertThrows(RequestDeadlineExceededException.class,
+                         () -> resolver.getDataCiteMetadataXml(PUBLICATION_ID));
+        }
+        verify(httpClient, never()).send(any(), any());
+    }
+
+    @Test
+    void shouldReportDeadlineExceededWhenPublicationApiTimesOutAfterRequestDeadline()
+        throws IOException, InterruptedException {
+        when(httpClient.send(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(SHORT_TIME.multipliedBy(2).toMillis());
+            throw new HttpTimeoutException("request timed out");
+        });
+
+        try (var deadline = RequestDeadline.after(SHORT_TIME).bind()) {
+            var exception = assertThrows(RequestDeadlineExceededException.class,
+                                         () -> resolver.getDataCiteMetadataXml(PUBLICATION_ID));
+            assertThat(exception.getCause(), is(instanceOf(HttpTimeoutException.class)));
+        }
+    }
+
+    @Test
+    void shouldReportPublicationApiFailureWhenPublicationApiTimesOutWithinRequestDeadline()
+        throws IOException, InterruptedException {
+        when(httpClient.send(any(), any())).thenThrow(new HttpTimeoutException("request timed out"));
+
+        var exception = assertThrows(PublicationApiClientException.class,
+                                     () -> resolver.getDataCiteMetadataXml(PUBLICATION_ID));
+
+        assertThat(exception.getStatus(), is(equalTo(Status.INTERNAL_SERVER_ERROR)));
+    }
+}
@@ -0,0 +1,39 @@
+package no.unit.nva.datacite.commons;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class HttpTransportTest {
+
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    @Test
+    void shouldCreateClientPreferringHttp2WithoutFollowingRedirects() {
+        var client = HttpTransport.newClient();
+
+        assertThat(client.version(), is(equalTo(Version.HTTP_2)));
+        assertThat(client.followRedirects(), is(equalTo(Redirect.NEVER)));
+        assertThat(client.connectTimeout(), is(equalTo(Optional.of(HttpTransport.CONNECT_TIMEOUT))));
+        assertThat(client.executor().isPresent(), is(true));
+    }
+
+    @Test
+    void shouldLeaveKeepAliveOfJvmUnchangedWhenCreatingClient() {
+        var before = System.getProperty(KEEP_ALIVE_PROPERTY);
+
+        HttpTransport.newClient();
+
+        assertThat(System.getProperty(KEEP_ALIVE_PROPERTY), is(equalTo(before)));
+    }
+
+    @Test
+    void shouldShareOneClientWithinJvm() {
+        assertThat(HttpTransport.sharedClient(), is(sameInstance(HttpTransport.sharedClient())));
+    }
+}
@@ -0,0 +1,45 @@
+package no.unit.nva.datacite.events;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Runs a task for every record of a batch on virtual threads, with at most a fixed number of records in progress at
+ * the same time, and returns the results in the order of the records. Tasks are expected to report their failures in
+ * their result, so that one failing record does not affect the others.
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class ConcurrentRecords {
+
+    private static final String THREAD_NAME_PREFIX = "external-update-";
+
+    private ConcurrentRecords() {
+    }
+
+    static <T, R> List<R> map(List<T> records, int maxConcurrency, Function<T, R> task) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        var threads = Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory();
+        try (var executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, records.size()), threads)) {
+            var results = records.stream()
+                              .map(item -> executor.submit(() -> task.apply(item)))
+                              .toList();
+            return results.stream().map(ConcurrentRecords::join).toList();
+        }
+    }
+
+    private static <R> R join(Future<R> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new EventHandlingException("Interrupted while processing records", exception);
+        } catch (ExecutionException exception) {
+            throw new EventHandlingException("Failed to process record", exception.getCause());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package no.unit.nva.datacite.events;
 
-import java.net.URI;
+import java.util.Collection;
+import java.util.List;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
 import no.unit.nva.doi.datacite.restclient.models.State;
@@ -14,10 +15,25 @@ public class DoiManager {
         this.doiClient = doiClient;
     }
 
-    public void deleteDoiIfOnlyDrafted(Doi doi) throws ClientException {
-        var doiState = doiClient.getDoi(doi);
-        if (State.DRAFT.equals(doiState.getState())) {
-            doiClient.deleteDraftDoi(doi);
+    /**
+     * Finds the DOIs that are still drafts. The states of all the DOIs are looked up together, so that a batch of
+     * deletions costs a single state query instead of one per DOI.
+     *
+     * @param dois the DOIs of deleted resources.
+     * @return the DOIs that are in the draft state.
+     * @throws ClientException when the states could not be looked up.
+     */
+    public List<Doi> findDraftDois(Collection<Doi> dois) throws ClientException {
+        if (dois.isEmpty()) {
+            return List.of();
         }
+        var states = doiClient.getDoiStates(dois);
+        return dois.stream()
+                   .filter(doi -> State.DRAFT.equals(states.get(doi)))
+                   .toList();
+    }
+
+    public void deleteDraftDoi(Doi doi) throws ClientException {
+        doiClient.deleteDraftDoi(doi);
     }
 }
@@ -0,0 +1,45 @@
+package no.unit.nva.datacite.events;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import no.unit.nva.s3.S3Driver;
+
+/**
+ * Reads the resource update events that the records of one batch refer to. Records may be read concurrently, and an
+ * event referred to by several records is fetched from S3 and scanned only once; the other records wait for and share
+ * the result. A reader lives for a single invocation, so nothing is kept between batches.
+ */
+final class EventBodyReader {
+
+    private final S3Driver s3Driver;
+    private final Map<URI, CompletableFuture<ResourceUpdateEvent>> events = new ConcurrentHashMap<>();
+
+    EventBodyReader(S3Driver s3Driver) {
+        this.s3Driver = s3Driver;
+    }
+
+    ResourceUpdateEvent read(URI eventUri) {
+        var pending = new CompletableFuture<ResourceUpdateEvent>();
+        var existing = events.putIfAbsent(eventUri, pending);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            pending.complete(ResourceUpdateEventScanner.scan(s3Driver.readEvent(eventUri)));
+        } catch (RuntimeException exception) {
+            pending.completeExceptionally(exception);
+        }
+        return join(pending);
+    }
+
+    private static ResourceUpdateEvent join(CompletableFuture<ResourceUpdateEvent> event) {
+        try {
+            return event.join();
+        } catch (CompletionException exception) {
+            throw exception.getCause() instanceof RuntimeException cause ? cause : exception;
+        }
+    }
+}
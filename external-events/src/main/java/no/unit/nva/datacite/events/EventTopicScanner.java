@@ -0,0 +1,72 @@
+package no.unit.nva.datacite.events;
+
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Reads the topic ({@code detail.responsePayload.topic}) of an EventBridge event with a streaming parser, so that
+ * events about topics the handler does not care about can be dropped without binding them to objects. Scanning stops
+ * as soon as the topic has been read.
+ */
+final class EventTopicScanner {
+
+    private static final String DETAIL_FIELD = "detail";
+    private static final String RESPONSE_PAYLOAD_FIELD = "responsePayload";
+    private static final String TOPIC_FIELD = "topic";
+
+    private EventTopicScanner() {
+    }
+
+    /**
+     * Finds the topic of the event.
+     *
+     * @param eventBody the EventBridge event, as delivered in the body of an SQS message.
+     * @return the topic, or empty when the event has none.
+     * @throws EventHandlingException when the body is not JSON, or the topic is not a string.
+     */
+    static Optional<String> topicOf(String eventBody) {
+        try (var parser = dtoObjectMapper.getFactory().createParser(eventBody)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT
+                && seekObject(parser, DETAIL_FIELD)
+                && seekObject(parser, RESPONSE_PAYLOAD_FIELD)) {
+                return readTopic(parser);
+            }
+            return Optional.empty();
+        } catch (IOException exception) {
+            throw new EventHandlingException("Failed to parse event body", exception);
+        }
+    }
+
+    private static boolean seekObject(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            if (parser.nextToken() == JsonToken.START_OBJECT && name.equals(fieldName)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static Optional<String> readTopic(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            var token = parser.nextToken();
+            if (TOPIC_FIELD.equals(fieldName)) {
+                return Optional.of(textOf(parser, token));
+            }
+            parser.skipChildren();
+        }
+        return Optional.empty();
+    }
+
+    private static String textOf(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            throw new EventHandlingException("Expected the topic of the event to be a string, but was " + token);
+        }
+        return parser.getText();
+    }
+}
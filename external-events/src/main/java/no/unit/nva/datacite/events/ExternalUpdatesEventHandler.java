@@ -3,13 +3,17 @@ package no.unit.nva.datacite.events;
 import static nva.commons.core.attempt.Try.attempt;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
 import com.fasterxml.jackson.core.type.TypeReference;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import no.unit.nva.commons.json.JsonUtils;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.DataCiteClientV2;
@@ -22,21 +26,23 @@ import no.unit.nva.s3.S3Driver;
 import nva.commons.core.Environment;
 import nva.commons.core.JacocoGenerated;
 import nva.commons.core.SingletonCollector;
-import nva.commons.core.attempt.Failure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.s3.S3Client;
 
-public class ExternalUpdatesEventHandler implements RequestHandler<SQSEvent, Void> {
+public class ExternalUpdatesEventHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
 
     private static final Logger logger = LoggerFactory.getLogger(ExternalUpdatesEventHandler.class);
     private static final TypeReference<AwsEventBridgeEvent<AwsEventBridgeDetail<EventReference>>>
         SQS_VALUE_TYPE_REF = new TypeReference<>() {};
     private static final Set<String> HANDLED_TOPICS = Set.of("PublicationService.Resource.Deleted");
     private static final String EVENTS_BUCKET_NAME_ENV = "EVENTS_BUCKET_NAME";
+    private static final String MAX_CONCURRENT_RECORDS_ENV = "MAX_CONCURRENT_RECORDS";
+    private static final int DEFAULT_MAX_CONCURRENT_RECORDS = 10;
 
     private final S3Driver s3Driver;
     private final DoiManager doiManager;
+    private final int maxConcurrentRecords;
 
     @JacocoGenerated
     public ExternalUpdatesEventHandler() {
@@ -50,53 +56,122 @@ public class ExternalUpdatesEventHandler implements RequestHandler<SQSEvent, Voi
         Environment environment, S3Client s3Client, DoiManager doiManager) {
         this.s3Driver = new S3Driver(s3Client, environment.readEnv(EVENTS_BUCKET_NAME_ENV));
         this.doiManager = doiManager;
+        this.maxConcurrentRecords = environment.readEnvOpt(MAX_CONCURRENT_RECORDS_ENV)
+                                        .map(Integer::parseInt)
+                                        .orElse(DEFAULT_MAX_CONCURRENT_RECORDS);
     }
 
+    /**
+     * Processes the records of the batch concurrently. The events of all records are read first, then the states of
+     * their DOIs are looked up with one query per DOI prefix, and finally the draft DOIs are deleted. An event or DOI
+     * that several records refer to is read or deleted only once. A failing record, or a failing lookup of the states
+     * of one prefix, does not stop the processing of the others, and only the failed records are reported back to SQS,
+     * so that the records that succeeded are not delivered again.
+     *
+     * @return the ids of the messages that failed and are to be retried.
+     */
     @Override
-    public Void handleRequest(SQSEvent sqsEvent, Context context) {
-        Optional.ofNullable(sqsEvent.getRecords()).stream()
-            .flatMap(List::stream)
-            .map(ExternalUpdatesEventHandler::parseEventReference)
-            .filter(Objects::nonNull)
-            .forEach(this::processPayload);
-        return null;
+    public SQSBatchResponse handleRequest(SQSEvent sqsEvent, Context context) {
+        var records = Optional.ofNullable(sqsEvent.getRecords()).orElse(List.of());
+        var eventBodies = new EventBodyReader(s3Driver);
+        var readRecords = ConcurrentRecords.map(records,
+                                                maxConcurrentRecords,
+                                                message -> readRecord(message, eventBodies));
+        var checkedRecords = deleteDoisIfDrafted(readRecords.stream().filter(ProcessedRecord::hasDoiToCheck).toList());
+        return reportFailures(Stream.concat(readRecords.stream(), checkedRecords.stream()).toList());
     }
 
-    private void processPayload(EventReference eventReference) {
-        if (!HANDLED_TOPICS.contains(eventReference.getTopic())) {
-            return;
+    private static ProcessedRecord readRecord(SQSMessage message, EventBodyReader eventBodies) {
+        try {
+            return readDeletedResource(message, eventBodies);
+        } catch (RuntimeException exception) {
+            return ProcessedRecord.ignored(message).failed(exception);
+        }
+    }
+
+    private static ProcessedRecord readDeletedResource(SQSMessage message, EventBodyReader eventBodies) {
+        var isHandledTopic = EventTopicScanner.topicOf(message.getBody())
+                                 .filter(HANDLED_TOPICS::contains)
+                                 .isPresent();
+        if (!isHandledTopic) {
+            return ProcessedRecord.ignored(message);
         }
 
-        var updateEvent = getEventBodyFromS3(eventReference);
-        if (updateEvent.isDeletionOfResourceWithDoi()) {
-            deleteDoiIfDrafted(updateEvent.oldData());
+        var eventReference = parseEventReference(message);
+        var updateEvent = eventBodies.read(eventReference.getUri());
+        return updateEvent.isDeletionOfResourceWithDoi()
+                   ? ProcessedRecord.withDeletedResource(message, updateEvent.oldData())
+                   : ProcessedRecord.ignored(message);
+    }
+
+    private List<ProcessedRecord> deleteDoisIfDrafted(List<ProcessedRecord> records) {
+        var recordsByDoi = records.stream()
+                               .collect(Collectors.groupingBy(ProcessedRecord::doi,
+                                                              LinkedHashMap::new,
+                                                              Collectors.toList()));
+        var doisByPrefix = recordsByDoi.keySet().stream()
+                               .collect(Collectors.groupingBy(Doi::getPrefix,
+                                                              LinkedHashMap::new,
+                                                              Collectors.toList()));
+        var lookups = ConcurrentRecords.map(List.copyOf(doisByPrefix.values()),
+                                            maxConcurrentRecords,
+                                            this::findDraftDois);
+
+        var failedLookups = lookups.stream()
+                                .filter(DraftLookup::isFailure)
+                                .flatMap(lookup -> lookup.dois().stream()
+                                                       .flatMap(doi -> recordsByDoi.get(doi).stream())
+                                                       .map(processed -> processed.failed(lookup.failure())));
+        var drafted = lookups.stream().flatMap(lookup -> lookup.draftDois().stream()).toList();
+        var deletions = ConcurrentRecords.map(drafted,
+                                              maxConcurrentRecords,
+                                              doi -> deleteDraftDoi(doi, recordsByDoi.get(doi)))
+                            .stream()
+                            .flatMap(List::stream);
+        return Stream.concat(failedLookups, deletions).toList();
+    }
+
+    /**
+     * Looks up the states of DOIs sharing a prefix, and thereby a repository account, in one query. A failing lookup
+     * is returned rather than thrown, so that it only fails the records of this prefix.
+     */
+    private DraftLookup findDraftDois(List<Doi> dois) {
+        try {
+            return new DraftLookup(dois, doiManager.findDraftDois(dois), null);
+        } catch (ClientException e) {
+            var failure = new EventHandlingException("Failed to check state of dois", e);
+            return new DraftLookup(dois, List.of(), failure);
         }
     }
 
-    private void deleteDoiIfDrafted(Resource deletedResource) {
-        var doi = Doi.fromUri(deletedResource.doi());
+    private List<ProcessedRecord> deleteDraftDoi(Doi doi, List<ProcessedRecord> records) {
         try {
-            doiManager.deleteDoiIfOnlyDrafted(doi);
+            doiManager.deleteDraftDoi(doi);
         } catch (ClientException e) {
-            var message = String.format("Failed to check state or delete doi %s", doi);
-            throw new EventHandlingException(message, e);
+            var failure = new EventHandlingException(String.format("Failed to delete doi %s", doi), e);
+            return records.stream().map(processed -> processed.failed(failure)).toList();
         }
 
-        var resourceIdentifier = deletedResource.identifier();
-        logger.info("Deleted draft DOI {} as resource {} was deleted.", doi.getUri(), resourceIdentifier);
+        records.forEach(processed -> logger.info("Deleted draft DOI {} as resource {} was deleted.",
+                                                 doi.getUri(),
+                                                 processed.deletedResource().identifier()));
+        return records;
     }
 
-    private ResourceUpdateEvent getEventBodyFromS3(EventReference eventReference) {
-        var event = s3Driver.readEvent(eventReference.getUri());
-        return attempt(() -> JsonUtils.dtoObjectMapper.readValue(event, ResourceUpdateEvent.class))
-                   .orElseThrow(this::logAndThrow);
+    private static SQSBatchResponse reportFailures(List<ProcessedRecord> records) {
+        var failures = records.stream()
+                           .filter(ProcessedRecord::isFailure)
+                           .map(ExternalUpdatesEventHandler::logFailure)
+                           .distinct()
+                           .map(BatchItemFailure::new)
+                           .toList();
+        return new SQSBatchResponse(failures);
     }
 
-    private RuntimeException logAndThrow(Failure<ResourceUpdateEvent> updateEventFailure) {
-        final Throwable cause = updateEventFailure.getException();
-        logger.error("Unable to parse s3 event reference", cause);
-        throw new EventHandlingException(
-            "Failed to parse s3 event reference!", cause);
+    private static String logFailure(ProcessedRecord failed) {
+        var messageId = failed.message().getMessageId();
+        logger.error("Failed to process message {}", messageId, failed.failure());
+        return messageId;
     }
 
     private static EventReference parseEventReference(SQSMessage sqs) {
@@ -117,4 +192,11 @@ public class ExternalUpdatesEventHandler implements RequestHandler<SQSEvent, Voi
     private static DoiClient defaultDoiClient() {
         return new DataCiteClientV2();
     }
+
+    private record DraftLookup(List<Doi> dois, List<Doi> draftDois, RuntimeException failure) {
+
+        boolean isFailure() {
+            return failure != null;
+        }
+    }
 }
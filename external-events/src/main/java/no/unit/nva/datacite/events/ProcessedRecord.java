@@ -0,0 +1,35 @@
+package no.unit.nva.datacite.events;
+
+import static java.util.Objects.nonNull;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import no.unit.nva.doi.models.Doi;
+
+/**
+ * The outcome of processing one SQS record: the deleted resource and its parsed DOI, if the record is about one, or
+ * the failure that stopped the processing of the record.
+ */
+record ProcessedRecord(SQSMessage message, Resource deletedResource, Doi doi, RuntimeException failure) {
+
+    static ProcessedRecord ignored(SQSMessage message) {
+        return new ProcessedRecord(message, null, null, null);
+    }
+
+    /**
+     * Parses the DOI of the deleted resource, so that a malformed DOI fails only the record it belongs to.
+     */
+    static ProcessedRecord withDeletedResource(SQSMessage message, Resource deletedResource) {
+        return new ProcessedRecord(message, deletedResource, Doi.fromUri(deletedResource.doi()), null);
+    }
+
+    ProcessedRecord failed(RuntimeException exception) {
+        return new ProcessedRecord(message, deletedResource, doi, exception);
+    }
+
+    boolean isFailure() {
+        return nonNull(failure);
+    }
+
+    boolean hasDoiToCheck() {
+        return !isFailure() && nonNull(deletedResource);
+    }
+}
@@ -0,0 +1,101 @@
+package no.unit.nva.datacite.events;
+
+import static no.unit.nva.commons.json.JsonUtils.dtoObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Reads the parts of a {@link ResourceUpdateEvent} that decide whether a DOI has to be checked, with a streaming
+ * parser: the action, and the identifier and DOI of the old data. Scanning stops as soon as the decision can be made,
+ * so the full resource documents the events carry are neither bound nor read to the end.
+ */
+final class ResourceUpdateEventScanner {
+
+    private static final String ACTION_FIELD = "action";
+    private static final String OLD_DATA_FIELD = "oldData";
+    private static final String IDENTIFIER_FIELD = "identifier";
+    private static final String DOI_FIELD = "doi";
+    private static final String REMOVE_ACTION = "REMOVE";
+    private static final String PARSING_FAILED_MESSAGE = "Failed to parse s3 event reference!";
+
+    private ResourceUpdateEventScanner() {
+    }
+
+    /**
+     * Scans the event.
+     *
+     * @param json the resource update event.
+     * @return the event, holding the action and, for deletions, the identifier and DOI of the old data.
+     * @throws EventHandlingException when the event cannot be parsed.
+     */
+    static ResourceUpdateEvent scan(String json) {
+        try (var parser = dtoObjectMapper.getFactory().createParser(json)) {
+            return scan(parser);
+        } catch (IOException | IllegalArgumentException exception) {
+            throw new EventHandlingException(PARSING_FAILED_MESSAGE, exception);
+        }
+    }
+
+    private static ResourceUpdateEvent scan(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        String action = null;
+        Resource oldData = null;
+        var hasAction = false;
+        var hasOldData = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            var token = parser.nextToken();
+            if (ACTION_FIELD.equals(fieldName)) {
+                action = readString(parser, token);
+                hasAction = true;
+            } else if (OLD_DATA_FIELD.equals(fieldName)) {
+                oldData = readResource(parser, token);
+                hasOldData = true;
+            } else {
+                parser.skipChildren();
+            }
+            if (hasAction && (hasOldData || !REMOVE_ACTION.equals(action))) {
+                break;
+            }
+        }
+        return new ResourceUpdateEvent(action, oldData, null);
+    }
+
+    private static Resource readResource(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.START_OBJECT);
+        String identifier = null;
+        URI doi = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            var valueToken = parser.nextToken();
+            if (IDENTIFIER_FIELD.equals(fieldName)) {
+                identifier = readString(parser, valueToken);
+            } else if (DOI_FIELD.equals(fieldName)) {
+                var value = readString(parser, valueToken);
+                doi = value == null ? null : URI.create(value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Resource(identifier, doi, null);
+    }
+
+    private static String readString(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(token, JsonToken.VALUE_STRING);
+        return parser.getText();
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new EventHandlingException(PARSING_FAILED_MESSAGE + " Expected " + expected + " but was " + actual);
+        }
+    }
+}
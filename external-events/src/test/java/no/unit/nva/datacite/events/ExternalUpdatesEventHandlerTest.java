@@ -1,26 +1,36 @@
 package no.unit.nva.datacite.events;
 
 import static no.unit.nva.testutils.RandomDataGenerator.randomDoi;
+import static no.unit.nva.testutils.RandomDataGenerator.randomString;
 import static no.unit.nva.testutils.RandomDataGenerator.randomUri;
 import static nva.commons.core.ioutils.IoUtils.stringFromResources;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import no.unit.nva.doi.DoiClient;
 import no.unit.nva.doi.datacite.clients.exception.ClientException;
-import no.unit.nva.doi.datacite.restclient.models.DoiStateDto;
 import no.unit.nva.doi.datacite.restclient.models.State;
 import no.unit.nva.doi.models.Doi;
 import no.unit.nva.identifiers.SortableIdentifier;
@@ -40,6 +50,10 @@ public class ExternalUpdatesEventHandlerTest {
     private static final String MESSAGE_BODY_TEMPLATE =
         stringFromResources(Path.of("sqsMessageBodyTemplate.json"));
 
+    private static final String PREFIX = "10.1234";
+    private static final String OTHER_PREFIX = "10.5678";
+    private static final int SQS_BATCH_SIZE = 10;
+
     private Environment environment;
     private DoiClient doiClient;
 
@@ -54,7 +68,9 @@ public class ExternalUpdatesEventHandlerTest {
 
         var handler = new ExternalUpdatesEventHandler(environment, new FakeS3Client(), new DoiManager(doiClient));
 
-        assertDoesNotThrow(() -> handler.handleRequest(new SQSEvent(), new FakeContext()));
+        var response = handler.handleRequest(new SQSEvent(), new FakeContext());
+
+        assertThat(response.getBatchItemFailures(), is(empty()));
     }
 
     @ParameterizedTest
@@ -71,9 +87,9 @@ public class ExternalUpdatesEventHandlerTest {
     }
 
     @Test
-    void shouldFailWhenNotAbleToParseS3EventData() {
+    void shouldReportMessageAsFailedWhenNotAbleToParseS3EventData() {
         var eventReference = stringFromResources(Path.of("unparsableS3EventReference.json"));
-        invokeHandlerWithEventReferenceAndAssertThrows(eventReference);
+        invokeHandlerWithEventReferenceAndAssertReportedAsFailed(eventReference);
     }
 
     @Test
@@ -87,9 +103,21 @@ public class ExternalUpdatesEventHandlerTest {
     }
 
     @Test
-    void shouldFailWhenNotAbleToParseEventReference() {
+    void shouldIgnoreEventWithUnknownTopicWithoutBindingRestOfEvent() {
+        var messageBody = """
+            {"detail": {"responsePayload": {"uri": [], "topic": "PublicationService.Resource.Update"}}}
+            """;
+        var fixture = prepareForTesting(randomUri(), "ignored", messageBody);
+
+        var response = fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext());
+
+        assertThat(response.getBatchItemFailures(), is(empty()));
+    }
+
+    @Test
+    void shouldReportMessageAsFailedWhenNotAbleToParseEventReference() {
         var invalidMessageBody = stringFromResources(Path.of("unparsableSqsMessageBody.json"));
-        invokeHandlerWithMessageBodyAndAssertThrows(invalidMessageBody);
+        invokeHandlerWithMessageBodyAndAssertReportedAsFailed(invalidMessageBody);
     }
 
     @Test
@@ -104,7 +132,7 @@ public class ExternalUpdatesEventHandlerTest {
 
         assertDoesNotThrow(() -> fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext()));
 
-        verify(doiClient, times(0)).getDoi(any());
+        verify(doiClient, times(0)).getDoiStates(any());
         verify(doiClient, times(0)).deleteDraftDoi(any());
     }
 
@@ -118,8 +146,7 @@ public class ExternalUpdatesEventHandlerTest {
         var doi = randomDoi();
         var eventReference = generateEventReference(customerId, doi);
         var fixture = prepareForTesting(s3Uri, eventReference, messageBody);
-        var draftDoi = new DoiStateDto(doi.toString(), State.DRAFT);
-        doReturn(draftDoi).when(doiClient).getDoi(ArgumentMatchers.eq(Doi.fromUri(doi)));
+        doReturn(Map.of(Doi.fromUri(doi), State.DRAFT)).when(doiClient).getDoiStates(any());
 
         assertDoesNotThrow(() -> fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext()));
 
@@ -137,32 +164,209 @@ public class ExternalUpdatesEventHandlerTest {
         var doi = randomDoi();
         var eventReference = generateEventReference(customerId, doi);
         var fixture = prepareForTesting(s3Uri, eventReference, messageBody);
-        var actualDoiState = new DoiStateDto(doi.toString(), state);
-        doReturn(actualDoiState).when(doiClient).getDoi(ArgumentMatchers.eq(Doi.fromUri(doi)));
+        doReturn(Map.of(Doi.fromUri(doi), state)).when(doiClient).getDoiStates(any());
 
         assertDoesNotThrow(() -> fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext()));
 
         verify(doiClient, times(0)).deleteDraftDoi(any());
     }
 
-    private void invokeHandlerWithEventReferenceAndAssertThrows(String eventReference) {
+    @Test
+    void shouldLookUpStatesOfAllDeletedResourcesWithSamePrefixInBatchWithSingleQuery() throws ClientException {
+        var draftDoi = doiWithPrefix(PREFIX);
+        var findableDoi = doiWithPrefix(PREFIX);
+        var customerId = randomUri();
+        var draftMessage = randomUri();
+        var findableMessage = randomUri();
+        var s3Client = FakeS3Client.fromContentsMap(Map.of(
+            UriWrapper.fromUri(draftMessage).getLastPathElement(),
+            toInputStream(generateEventReference(customerId, draftDoi)),
+            UriWrapper.fromUri(findableMessage).getLastPathElement(),
+            toInputStream(generateEventReference(customerId, findableDoi))));
+        var handler = new ExternalUpdatesEventHandler(environment, s3Client, new DoiManager(doiClient));
+        var sqsEvent = new SQSEvent();
+        sqsEvent.setRecords(List.of(sqsMessage(generateMessageBody(draftMessage)),
+                                    sqsMessage(generateMessageBody(findableMessage))));
+        doReturn(Map.of(Doi.fromUri(draftDoi), State.DRAFT, Doi.fromUri(findableDoi), State.FINDABLE))
+            .when(doiClient).getDoiStates(any());
+
+        assertDoesNotThrow(() -> handler.handleRequest(sqsEvent, new FakeContext()));
+
+        verify(doiClient, times(1)).getDoiStates(List.of(Doi.fromUri(draftDoi), Doi.fromUri(findableDoi)));
+        verify(doiClient, times(1)).deleteDraftDoi(Doi.fromUri(draftDoi));
+        verify(doiClient, times(0)).deleteDraftDoi(Doi.fromUri(findableDoi));
+    }
+
+    @Test
+    void shouldReadSharedEventAndDeleteItsDraftDoiOnlyOnceWhenSeveralRecordsReferToIt() throws ClientException {
+        var s3Uri = randomUri();
+        var doi = randomDoi();
+        var fixture = prepareForTesting(s3Uri, generateEventReference(randomUri(), doi), generateMessageBody(s3Uri));
+        var duplicate = sqsMessage(generateMessageBody(s3Uri));
+        fixture.sqsEvent().setRecords(List.of(fixture.sqsEvent().getRecords().getFirst(), duplicate));
+        doReturn(Map.of(Doi.fromUri(doi), State.DRAFT)).when(doiClient).getDoiStates(any());
+
+        var response = fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext());
+
+        assertThat(failedMessageIds(response), is(empty()));
+        verify(doiClient, times(1)).getDoiStates(List.of(Doi.fromUri(doi)));
+        verify(doiClient, times(1)).deleteDraftDoi(Doi.fromUri(doi));
+    }
+
+    @Test
+    void shouldReportOnlyTheRecordThatCannotBeReadAsFailedAndProcessTheRest() throws ClientException {
+        var draftDoi = randomDoi();
+        var draftMessage = randomUri();
+        var unparsableMessage = randomUri();
+        var s3Client = FakeS3Client.fromContentsMap(Map.of(
+            UriWrapper.fromUri(draftMessage).getLastPathElement(),
+            toInputStream(generateEventReference(randomUri(), draftDoi)),
+            UriWrapper.fromUri(unparsableMessage).getLastPathElement(),
+            toInputStream(stringFromResources(Path.of("unparsableS3EventReference.json")))));
+        var handler = new ExternalUpdatesEventHandler(environment, s3Client, new DoiManager(doiClient));
+        var sqsEvent = new SQSEvent();
+        var failingMessage = sqsMessage(generateMessageBody(unparsableMessage));
+        sqsEvent.setRecords(List.of(failingMessage, sqsMessage(generateMessageBody(draftMessage))));
+        doReturn(Map.of(Doi.fromUri(draftDoi), State.DRAFT)).when(doiClient).getDoiStates(any());
+
+        var response = handler.handleRequest(sqsEvent, new FakeContext());
+
+        assertThat(failedMessageIds(response), contains(failingMessage.getMessageId()));
+        verify(doiClient, times(1)).deleteDraftDoi(Doi.fromUri(draftDoi));
+    }
+
+    @Test
+    void shouldReportMessageAsFailedWhenDoiStatesCannotBeLookedUp() throws ClientException {
+        var s3Uri = randomUri();
+        var eventReference = generateEventReference(randomUri(), randomDoi());
+        var fixture = prepareForTesting(s3Uri, eventReference, generateMessageBody(s3Uri));
+        doThrow(new ClientException()).when(doiClient).getDoiStates(any());
+
+        var response = fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext());
+
+        assertThat(failedMessageIds(response), is(equalTo(messageIds(fixture.sqsEvent()))));
+    }
+
+    @Test
+    void shouldReportOnlyRecordsOfPrefixWhoseDoiStatesCannotBeLookedUpAsFailed() throws ClientException {
+        var draftDoi = Doi.fromUri(doiWithPrefix(PREFIX));
+        var unknownDoi = Doi.fromUri(doiWithPrefix(OTHER_PREFIX));
+        var draftMessage = randomUri();
+        var unknownMessage = randomUri();
+        var s3Client = FakeS3Client.fromContentsMap(Map.of(
+            UriWrapper.fromUri(draftMessage).getLastPathElement(),
+            toInputStream(generateEventReference(randomUri(), draftDoi.getUri())),
+            UriWrapper.fromUri(unknownMessage).getLastPathElement(),
+            toInputStream(generateEventReference(randomUri(), unknownDoi.getUri()))));
+        var handler = new ExternalUpdatesEventHandler(environment, s3Client, new DoiManager(doiClient));
+        var sqsEvent = new SQSEvent();
+        var failingMessage = sqsMessage(generateMessageBody(unknownMessage));
+        sqsEvent.setRecords(List.of(failingMessage, sqsMessage(generateMessageBody(draftMessage))));
+        doReturn(Map.of(draftDoi, State.DRAFT)).when(doiClient).getDoiStates(List.of(draftDoi));
+        doThrow(new ClientException()).when(doiClient).getDoiStates(List.of(unknownDoi));
+
+        var response = handler.handleRequest(sqsEvent, new FakeContext());
+
+        assertThat(failedMessageIds(response), contains(failingMessage.getMessageId()));
+        verify(doiClient, times(1)).deleteDraftDoi(draftDoi);
+    }
+
+    @Test
+    void shouldReportOnlyTheFailingRecordOfFullBatchSoThatSqsRedeliversNothingElse() throws ClientException {
+        var contents = new HashMap<String, InputStream>();
+        var records = new ArrayList<SQSMessage>();
+        var draftDois = new ArrayList<Doi>();
+        for (var i = 0; i < SQS_BATCH_SIZE - 1; i++) {
+            var draftDoi = Doi.fromUri(doiWithPrefix(PREFIX));
+            var s3Uri = randomUri();
+            contents.put(UriWrapper.fromUri(s3Uri).getLastPathElement(),
+                         toInputStream(generateEventReference(randomUri(), draftDoi.getUri())));
+            records.add(sqsMessage(generateMessageBody(s3Uri)));
+            draftDois.add(draftDoi);
+        }
+        var failingDoi = Doi.fromUri(doiWithPrefix(OTHER_PREFIX));
+        var failingS3Uri = randomUri();
+        contents.put(UriWrapper.fromUri(failingS3Uri).getLastPathElement(),
+                     toInputStream(generateEventReference(randomUri(), failingDoi.getUri())));
+        var failingMessage = sqsMessage(generateMessageBody(failingS3Uri));
+        records.add(failingMessage);
+        var handler = new ExternalUpdatesEventHandler(environment,
+                                                      FakeS3Client.fromContentsMap(contents),
+                                                      new DoiManager(doiClient));
+        var sqsEvent = new SQSEvent();
+        sqsEvent.setRecords(records);
+        var draftStates = new HashMap<Doi, State>();
+        draftDois.forEach(doi -> draftStates.put(doi, State.DRAFT));
+        doReturn(draftStates).when(doiClient).getDoiStates(draftDois);
+        doThrow(new ClientException()).when(doiClient).getDoiStates(List.of(failingDoi));
+
+        var response = handler.handleRequest(sqsEvent, new FakeContext());
+
+        assertThat(failedMessageIds(response), contains(failingMessage.getMessageId()));
+        verify(doiClient, times(SQS_BATCH_SIZE - 1)).deleteDraftDoi(any());
+    }
+
+    @Test
+    void shouldReportOnlyTheRecordWithMalformedDoiAsFailed() throws ClientException {
+        var draftDoi = randomDoi();
+        var draftMessage = randomUri();
+        var malformedMessage = randomUri();
+        var s3Client = FakeS3Client.fromContentsMap(Map.of(
+            UriWrapper.fromUri(draftMessage).getLastPathElement(),
+            toInputStream(generateEventReference(randomUri(), draftDoi)),
+            UriWrapper.fromUri(malformedMessage).getLastPathElement(),
+            toInputStream(generateEventReference(randomUri(), URI.create("https://example.org/not-a-doi")))));
+        var handler = new ExternalUpdatesEventHandler(environment, s3Client, new DoiManager(doiClient));
+        var sqsEvent = new SQSEvent();
+        var failingMessage = sqsMessage(generateMessageBody(malformedMessage));
+        sqsEvent.setRecords(List.of(failingMessage, sqsMessage(generateMessageBody(draftMessage))));
+        doReturn(Map.of(Doi.fromUri(draftDoi), State.DRAFT)).when(doiClient).getDoiStates(any());
+
+        var response = handler.handleRequest(sqsEvent, new FakeContext());
+
+        assertThat(failedMessageIds(response), contains(failingMessage.getMessageId()));
+        verify(doiClient, times(1)).deleteDraftDoi(Doi.fromUri(draftDoi));
+    }
+
+    @Test
+    void shouldReportMessageAsFailedWhenDraftDoiCannotBeDeleted() throws ClientException {
+        var s3Uri = randomUri();
+        var doi = randomDoi();
+        var fixture = prepareForTesting(s3Uri, generateEventReference(randomUri(), doi), generateMessageBody(s3Uri));
+        doReturn(Map.of(Doi.fromUri(doi), State.DRAFT)).when(doiClient).getDoiStates(any());
+        doThrow(new ClientException()).when(doiClient).deleteDraftDoi(any());
+
+        var response = fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext());
+
+        assertThat(failedMessageIds(response), is(equalTo(messageIds(fixture.sqsEvent()))));
+    }
+
+    private void invokeHandlerWithEventReferenceAndAssertReportedAsFailed(String eventReference) {
         var s3Uri = randomUri();
         var messageBody = generateMessageBody(s3Uri);
-        invokeAndAssertThrows(eventReference, s3Uri, messageBody);
+        invokeAndAssertReportedAsFailed(eventReference, s3Uri, messageBody);
     }
 
-    private void invokeHandlerWithMessageBodyAndAssertThrows(String messageBody) {
+    private void invokeHandlerWithMessageBodyAndAssertReportedAsFailed(String messageBody) {
         var s3Uri = randomUri();
-        invokeAndAssertThrows("ignoredEventReference", s3Uri, messageBody);
+        invokeAndAssertReportedAsFailed("ignoredEventReference", s3Uri, messageBody);
     }
 
-    private void invokeAndAssertThrows(String eventReference, URI s3Uri, String messageBody) {
+    private void invokeAndAssertReportedAsFailed(String eventReference, URI s3Uri, String messageBody) {
         var fixture =
             prepareForTesting(s3Uri, eventReference, messageBody);
 
-        assertThrows(
-            EventHandlingException.class,
-            () -> fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext()));
+        var response = fixture.handler().handleRequest(fixture.sqsEvent(), new FakeContext());
+
+        assertThat(failedMessageIds(response), is(equalTo(messageIds(fixture.sqsEvent()))));
+    }
+
+    private static List<String> failedMessageIds(SQSBatchResponse response) {
+        return response.getBatchItemFailures().stream().map(BatchItemFailure::getItemIdentifier).toList();
+    }
+
+    private static List<String> messageIds(SQSEvent sqsEvent) {
+        return sqsEvent.getRecords().stream().map(SQSMessage::getMessageId).toList();
     }
 
     private String generateEventReference(URI customerId, URI doi) {
@@ -170,6 +374,10 @@ public class ExternalUpdatesEventHandlerTest {
         return String.format(eventReferenceTemplate, customerId, doi);
     }
 
+    private static URI doiWithPrefix(String prefix) {
+        return URI.create("https://doi.org/" + prefix + "/" + SortableIdentifier.next());
+    }
+
     private static String generateMessageBody(URI uri) {
         return String.format(MESSAGE_BODY_TEMPLATE, uri);
     }
@@ -181,17 +389,25 @@ public class ExternalUpdatesEventHandlerTest {
             FakeS3Client.fromContentsMap(
                 Map.of(
                     filename,
-                    new ByteArrayInputStream(eventReference.getBytes(StandardCharsets.UTF_8))));
+                    toInputStream(eventReference)));
         var handler = new ExternalUpdatesEventHandler(environment, s3Client, new DoiManager(doiClient));
 
-        var sqsMessage = new SQSMessage();
-        sqsMessage.setBody(invalidMessageBody);
-
         var sqsEvent = new SQSEvent();
-        sqsEvent.setRecords(List.of(sqsMessage));
+        sqsEvent.setRecords(List.of(sqsMessage(invalidMessageBody)));
         return new Fixture(handler, sqsEvent);
     }
 
+    private static SQSMessage sqsMessage(String body) {
+        var sqsMessage = new SQSMessage();
+        sqsMessage.setMessageId(randomString());
+        sqsMessage.setBody(body);
+        return sqsMessage;
+    }
+
+    private static ByteArrayInputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
     private record Fixture(ExternalUpdatesEventHandler handler, SQSEvent sqsEvent) {
 
     }